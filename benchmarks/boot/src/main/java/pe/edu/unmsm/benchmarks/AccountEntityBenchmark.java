@@ -0,0 +1,69 @@
+package pe.edu.unmsm.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.Money;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * debit/credit con importes BigDecimal y Money, y la aritmética BigDecimal que usaba Account antes
+ * como referencia. Con {@code -prof gc} se ve la asignación por operación (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountEntityBenchmark {
+    private final BigDecimal amount = new BigDecimal("100");
+    private final Money money = Money.of(amount);
+    private Account account;
+    private BigDecimal balance;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        balance = new BigDecimal("1000000000000");
+        account = new Account(1L, "Paul", new BigDecimal("1000000000000"));
+    }
+
+    @Benchmark
+    public Account debit() {
+        account.debit(amount);
+        return account;
+    }
+
+    @Benchmark
+    public Account credit() {
+        account.credit(amount);
+        return account;
+    }
+
+    @Benchmark
+    public Account debitMoney() {
+        account.debit(money);
+        return account;
+    }
+
+    @Benchmark
+    public Account creditMoney() {
+        account.credit(money);
+        return account;
+    }
+
+    @Benchmark
+    public BigDecimal debitBigDecimalBaseline() {
+        BigDecimal newBalance = balance.subtract(amount);
+        if (newBalance.compareTo(BigDecimal.ZERO) < 0) throw new IllegalStateException();
+        balance = newBalance;
+        return balance;
+    }
+
+    @Benchmark
+    public BigDecimal creditBigDecimalBaseline() {
+        balance = balance.add(amount);
+        return balance;
+    }
+}
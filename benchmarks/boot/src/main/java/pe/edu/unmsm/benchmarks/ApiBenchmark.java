@@ -0,0 +1,99 @@
+package pe.edu.unmsm.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.edu.unmsm.Application;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.repo.AccountRepo;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * GET /api/accounts/{id} and POST /api/accounts/transfer over HTTP, MVC + JPA against WebFlux + R2DBC
+ * on the same H2 data. Use {@code -t} to add concurrent clients.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiBenchmark {
+    private static final int ACCOUNTS = 1_000;
+
+    @Param({"mvc", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<Long> accountIds;
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--app.journal.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.sql=off",
+                "--spring.datasource.url=jdbc:h2:mem:api-" + stack + ";DB_CLOSE_DELAY=-1"));
+        if (stack.equals("reactive")) {
+            args.add("--spring.main.web-application-type=reactive");
+            args.add("--spring.r2dbc.url=r2dbc:h2:mem:///api-" + stack + ";DB_CLOSE_DELAY=-1");
+            args.add("--spring.r2dbc.username=sa");
+        }
+        context = new SpringApplicationBuilder(Application.class).run(args.toArray(String[]::new));
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/accounts";
+        client = HttpClient.newHttpClient();
+        accountIds = context.getBean(AccountRepo.class)
+                .saveAll(IntStream.range(0, ACCOUNTS)
+                        .mapToObj(i -> new Account(null, "Cliente " + i, new BigDecimal("1000000000")))
+                        .toList())
+                .stream()
+                .map(Account::getId)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String details() throws IOException, InterruptedException {
+        Long id = accountIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build();
+        return send(request);
+    }
+
+    @Benchmark
+    public String transfer() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(ACCOUNTS);
+        int target = (source + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        String body = "{\"bankId\":1,\"sourceAccountId\":" + accountIds.get(source)
+                + ",\"targetAccountId\":" + accountIds.get(target) + ",\"amount\":1}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/transfer"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(request);
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IllegalStateException(response.statusCode() + ": " + response.body());
+        return response.body();
+    }
+}
@@ -0,0 +1,76 @@
+package pe.edu.unmsm.benchmarks;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import pe.edu.unmsm.aspect.ServiceMetricsAspect;
+import pe.edu.unmsm.service.AccountService;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de registrar una llamada con histograma de percentiles en un PrometheusMeterRegistry: el
+ * Timer solo y una llamada a AccountService con y sin {@link ServiceMetricsAspect}. El objetivo es
+ * que la diferencia quede por debajo de 1 µs. Con {@code -t} se agregan hilos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+    private Timer timer;
+    private AccountService direct;
+    private AccountService proxy;
+    private AccountService timed;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        timer = Timer.builder("benchmark").register(registry);
+
+        // Solo responde getTotalTransfers; basta para medir el camino de la llamada
+        direct = (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(),
+                new Class<?>[]{AccountService.class}, (target, method, args) -> 0);
+        AspectJProxyFactory plainFactory = new AspectJProxyFactory(direct);
+        plainFactory.addInterface(AccountService.class);
+        proxy = plainFactory.getProxy();
+        AspectJProxyFactory timedFactory = new AspectJProxyFactory(direct);
+        timedFactory.addInterface(AccountService.class);
+        timedFactory.addAspect(new ServiceMetricsAspect(registry));
+        timed = timedFactory.getProxy();
+    }
+
+    @Benchmark
+    public void timerRecord() {
+        timer.record(System.nanoTime() & 0xFFFF, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public int call() {
+        return direct.getTotalTransfers(1L);
+    }
+
+    @Benchmark
+    public int springProxy() {
+        return proxy.getTotalTransfers(1L);
+    }
+
+    @Benchmark
+    public int timedCall() {
+        return timed.getTotalTransfers(1L);
+    }
+}
@@ -0,0 +1,109 @@
+package pe.edu.unmsm.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.Application;
+import pe.edu.unmsm.dto.AccountDetailsDto;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.BankCounter;
+import pe.edu.unmsm.repo.AccountRepo;
+import pe.edu.unmsm.repo.BankRepo;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Lecturas de saldo, detalle y contador del banco cargando la entidad frente a las proyecciones de
+ * AccountRepo/BankRepo, cada una en su transacción de solo lectura como en AccountServiceImpl y sin
+ * pasar por la caché.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+    private static final int ACCOUNTS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepo accountRepo;
+    private BankRepo bankRepo;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private List<Long> accountIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class).run("--server.port=0",
+                "--app.journal.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.sql=off",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-projection");
+        accountRepo = context.getBean(AccountRepo.class);
+        bankRepo = context.getBean(BankRepo.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        accountIds = accountRepo.saveAll(IntStream.range(0, ACCOUNTS)
+                        .mapToObj(i -> new Account(null, "Cliente " + i, new BigDecimal("1000"))).toList())
+                .stream()
+                .map(Account::getId)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BigDecimal balanceEntity() {
+        Long id = randomId();
+        return readOnly.execute(status -> accountRepo.findById(id).orElseThrow().getBalance());
+    }
+
+    @Benchmark
+    public BigDecimal balanceProjection() {
+        Long id = randomId();
+        return readOnly.execute(status -> accountRepo.findBalanceById(id).orElseThrow().toBigDecimal());
+    }
+
+    @Benchmark
+    public AccountDetailsDto detailsEntity() {
+        Long id = randomId();
+        return readOnly.execute(status -> {
+            Account account = accountRepo.findById(id).orElseThrow();
+            return new AccountDetailsDto(account.getId(), account.getPerson(), account.getBalance());
+        });
+    }
+
+    @Benchmark
+    public AccountDetailsDto detailsProjection() {
+        Long id = randomId();
+        return readOnly.execute(status -> accountRepo.findDetailsById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public Integer totalTransfersEntity() {
+        return readOnly.execute(status -> entityManager.find(BankCounter.class, 1L).getTotalTransfers());
+    }
+
+    @Benchmark
+    public Integer totalTransfersProjection() {
+        return readOnly.execute(status -> bankRepo.findTotalTransfersById(1L).orElseThrow());
+    }
+
+    private Long randomId() {
+        return accountIds.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+}
@@ -0,0 +1,70 @@
+package pe.edu.unmsm.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.edu.unmsm.Application;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.repo.AccountRepo;
+import pe.edu.unmsm.service.AccountService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * AccountServiceImpl.transfer end to end (locks, transaction, H2 en memoria) for each transfer mode.
+ * Use {@code -t} to add threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+    private static final int ACCOUNTS = 1_000;
+
+    @Param({"direct", "optimistic", "pessimistic", "sequenced"})
+    private String mode;
+
+    private final BigDecimal amount = BigDecimal.ONE;
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private List<Long> accountIds;
+
+    @Setup
+    public void setUp() {
+        // Como argumentos: las propiedades por defecto del builder pierden frente a application.yml
+        context = new SpringApplicationBuilder(Application.class).run("--app.transfer.mode=" + mode,
+                "--server.port=0",
+                "--app.journal.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.sql=off",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode);
+        accountService = context.getBean(AccountService.class);
+        accountIds = context.getBean(AccountRepo.class)
+                .saveAll(IntStream.range(0, ACCOUNTS)
+                        .mapToObj(i -> new Account(null, "Cliente " + i, new BigDecimal("1000000000")))
+                        .toList())
+                .stream()
+                .map(Account::getId)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(ACCOUNTS);
+        int target = (source + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        accountService.transfer(1L, accountIds.get(source), accountIds.get(target), amount);
+    }
+}
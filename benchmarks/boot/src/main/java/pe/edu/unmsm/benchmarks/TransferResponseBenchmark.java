@@ -0,0 +1,65 @@
+package pe.edu.unmsm.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuerpo de respuesta de una transferencia: el HashMap anterior frente a TransferResponse, en JSON,
+ * CBOR y Smile. Con {@code -prof gc} se ve la asignación por operación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransferResponseBenchmark {
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new CBORMapper();
+    private final ObjectMapper smile = new SmileMapper();
+    private final TransactionDto transaction = new TransactionDto();
+
+    @Setup
+    public void setUp() {
+        transaction.setBankId(1L);
+        transaction.setSourceAccountId(1L);
+        transaction.setTargetAccountId(2L);
+        transaction.setAmount(new BigDecimal("100"));
+    }
+
+    @Benchmark
+    public byte[] mapJson() throws JsonProcessingException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("date", LocalDate.now().toString());
+        response.put("status", "OK");
+        response.put("message", "Transferencia realizada con éxito!");
+        response.put("transaction", transaction);
+        return json.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] recordJson() throws JsonProcessingException {
+        return json.writeValueAsBytes(TransferResponse.ok(transaction));
+    }
+
+    @Benchmark
+    public byte[] recordCbor() throws JsonProcessingException {
+        return cbor.writeValueAsBytes(TransferResponse.ok(transaction));
+    }
+
+    @Benchmark
+    public byte[] recordSmile() throws JsonProcessingException {
+        return smile.writeValueAsBytes(TransferResponse.ok(transaction));
+    }
+}
@@ -0,0 +1,45 @@
+package pe.edu.unmsm.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.Bank;
+import pe.edu.unmsm.model.Money;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BankBenchmark {
+    private final BigDecimal amount = new BigDecimal("100.12");
+    private final Money money = Money.of(amount);
+    private Bank bank;
+    private Account source;
+    private Account destination;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bank = new Bank();
+        bank.setName("Banco del Estado");
+        source = new Account("John Doe", new BigDecimal("1000000000000.12345"));
+        destination = new Account("Paul", new BigDecimal("1500.8989"));
+        bank.addAccount(source);
+        bank.addAccount(destination);
+    }
+
+    @Benchmark
+    public Account transfer() {
+        bank.transfer(source, destination, amount);
+        return destination;
+    }
+
+    @Benchmark
+    public Account transferMoney() {
+        bank.transfer(source, destination, money);
+        return destination;
+    }
+}
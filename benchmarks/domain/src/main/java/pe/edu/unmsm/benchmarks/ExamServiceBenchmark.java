@@ -0,0 +1,68 @@
+package pe.edu.unmsm.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pe.edu.unmsm.Data;
+import pe.edu.unmsm.model.Exam;
+import pe.edu.unmsm.repo.ExamRepo;
+import pe.edu.unmsm.repo.QuestionRepoImpl;
+import pe.edu.unmsm.service.ExamService;
+import pe.edu.unmsm.service.ExamServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The repository returns an in-memory list: ExamRepoImpl prints on every call, which would be
+ * most of what gets measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExamServiceBenchmark {
+    @Param({"3", "1000"})
+    private int exams;
+
+    private ExamService examService;
+    private String lastName;
+
+    @Setup
+    public void setUp() {
+        List<Exam> all = new ArrayList<>(Data.EXAMS);
+        for (long i = all.size(); i < exams; i++) {
+            all.add(new Exam(i + 100, "Examen " + i));
+        }
+        lastName = all.get(all.size() - 1).getName();
+
+        ExamRepo examRepo = new ExamRepo() {
+            @Override
+            public Exam save(Exam exam) {
+                return exam;
+            }
+
+            @Override
+            public List<Exam> findAll() {
+                return all;
+            }
+        };
+        examService = new ExamServiceImpl(examRepo, new QuestionRepoImpl());
+    }
+
+    @Benchmark
+    public Exam findExamByNameFirst() {
+        return examService.findExamByName("Matemáticas");
+    }
+
+    @Benchmark
+    public Exam findExamByNameLast() {
+        return examService.findExamByName(lastName);
+    }
+
+    @Benchmark
+    public Exam findExamByNameMissing() {
+        return examService.findExamByName("Química");
+    }
+}
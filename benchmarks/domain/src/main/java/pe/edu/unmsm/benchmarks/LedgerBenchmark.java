@@ -0,0 +1,61 @@
+package pe.edu.unmsm.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.Bank;
+import pe.edu.unmsm.model.Ledger;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transferencias entre cuentas aleatorias: Ledger fuera del heap frente a objetos Account con Bank.transfer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Thread)
+public class LedgerBenchmark {
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000.00");
+
+    @Param({"1000000", "10000000"})
+    private int accounts;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final BigDecimal amount = new BigDecimal("1.00");
+    private long units;
+    private Ledger ledger;
+    private Bank bank;
+    private Account[] heapAccounts;
+
+    @Setup
+    public void setUp() {
+        ledger = new Ledger(accounts, 2);
+        units = ledger.toUnits(amount);
+        bank = new Bank();
+        heapAccounts = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            ledger.open(INITIAL_BALANCE);
+            heapAccounts[i] = new Account("Cliente " + i, INITIAL_BALANCE);
+        }
+    }
+
+    @Benchmark
+    public long ledgerTransfer() {
+        int source = random.nextInt(accounts);
+        int destination = random.nextInt(accounts);
+        ledger.transfer(source, destination, units);
+        return ledger.balance(destination);
+    }
+
+    @Benchmark
+    public Account heapTransfer() {
+        Account source = heapAccounts[random.nextInt(accounts)];
+        Account destination = heapAccounts[random.nextInt(accounts)];
+        bank.transfer(source, destination, amount);
+        return destination;
+    }
+}
@@ -1,7 +1,9 @@
 package pe.edu.unmsm;
 
+import pe.edu.unmsm.dto.AccountDetailsDto;
 import pe.edu.unmsm.model.Account;
 import pe.edu.unmsm.model.Bank;
+import pe.edu.unmsm.model.Money;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -19,7 +21,19 @@ public class Data {
         return Optional.of(new Account(2L, "Fernando", new BigDecimal("2000")));
     }
 
+    public static Optional<Money> createBalance001() {
+        return Optional.of(Money.of(new BigDecimal("1000")));
+    }
+
+    public static Optional<Money> createBalance002() {
+        return Optional.of(Money.of(new BigDecimal("2000")));
+    }
+
+    public static Optional<AccountDetailsDto> createDetails001() {
+        return Optional.of(new AccountDetailsDto(1L, "Paul", new BigDecimal("1000")));
+    }
+
     public static Optional<Bank> createBank() {
-        return Optional.of(new Bank(1L, "Banco Financiero", 0));
+        return Optional.of(new Bank(1L, "Banco Financiero"));
     }
 }
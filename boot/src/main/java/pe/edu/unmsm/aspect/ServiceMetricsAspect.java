@@ -0,0 +1,73 @@
+package pe.edu.unmsm.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@code AccountService} call as {@code account.service} tagged by method and exception.
+ * Outermost, so a transfer includes its retries and transaction. Timers are cached per method and
+ * exception to keep the lookup off the hot path.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+    public static final String METRIC = "account.service";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timers> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* pe.edu.unmsm.service.AccountService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timers methodTimers = timers.computeIfAbsent(method, m -> new Timers(m.getName()));
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.failure(e.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private final class Timers {
+        private final String method;
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        Timers(String method) {
+            this.method = method;
+            this.success = timer("none");
+        }
+
+        Timer failure(Class<?> exception) {
+            return failures.computeIfAbsent(exception, e -> timer(e.getSimpleName()));
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder(METRIC)
+                    .description("Llamadas a AccountService")
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package pe.edu.unmsm.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries {@code AccountService.transfer} when it loses an optimistic-locking race, waiting a random
+ * ("full jitter") exponential backoff between attempts.
+ */
+@Aspect
+@Component
+public class TransferRetryAspect {
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public TransferRetryAspect(MeterRegistry registry,
+                               @Value("${app.transfer.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${app.transfer.retry.initial-backoff-ms:10}") long initialBackoffMillis,
+                               @Value("${app.transfer.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("max-attempts debe ser al menos 1");
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.conflicts = Counter.builder("transfer.optimistic.conflicts")
+                .description("Transferencias que encontraron una versión desactualizada")
+                .register(registry);
+        this.retries = Counter.builder("transfer.optimistic.retries")
+                .description("Reintentos de transferencias por conflicto de versión")
+                .register(registry);
+        this.exhausted = Counter.builder("transfer.optimistic.exhausted")
+                .description("Transferencias que agotaron los reintentos")
+                .register(registry);
+    }
+
+    @Around("execution(* pe.edu.unmsm.service.AccountService.transfer(..))")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    // transfer no declara InterruptedException: el proxy la envolvería en UndeclaredThrowableException.
+    // Se restaura la interrupción y se entrega el conflicto que motivó la espera
+    private void backoff(int attempt, OptimisticLockingFailureException conflict) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) return;
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            conflict.addSuppressed(e);
+            throw conflict;
+        }
+    }
+}
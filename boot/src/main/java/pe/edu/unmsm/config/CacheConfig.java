@@ -0,0 +1,25 @@
+package pe.edu.unmsm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String ACCOUNTS = "accounts";
+    public static final String BALANCES = "balances";
+    public static final String DETAILS = "details";
+
+    // Las escrituras en caché se aplican después del commit, nunca si la transacción se revierte
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.spec:maximumSize=10000,expireAfterWrite=60s,recordStats}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ACCOUNTS, BALANCES, DETAILS);
+        cacheManager.setCacheSpecification(spec);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,62 @@
+package pe.edu.unmsm.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache backed by Caffeine through JCache, holding the {@code banks} entity
+ * region. Region sizes are in {@code application.conf}; with {@code hibernate.generate_statistics}
+ * the hit ratio of the region is published as {@code hibernate.cache.hit.ratio}.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    public static final String BANKS = "banks";
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer() {
+        return properties -> {
+            // Un CacheManager por EntityManagerFactory, que Hibernate cierra con ella. Con el URI por defecto
+            // los contextos de un mismo proceso (p. ej. en los tests) compartirían las regiones
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER,
+                    provider.getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader()));
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            // Las regiones deben estar en application.conf; una sin configurar crecería sin límite
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> hitRatio(registry, BANKS, statistics);
+    }
+
+    private static void hitRatio(MeterRegistry registry, String region, Statistics statistics) {
+        Gauge.builder("hibernate.cache.hit.ratio", () -> {
+                    CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+                    long requests = stats == null ? 0 : stats.getHitCount() + stats.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) stats.getHitCount() / requests;
+                })
+                .tag("region", region)
+                .description("Aciertos sobre consultas a la región de la caché de segundo nivel")
+                .register(registry);
+    }
+}
@@ -0,0 +1,60 @@
+package pe.edu.unmsm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each JPA transaction stays open, from begin to commit or rollback, as
+ * {@code transactions} tagged by outcome and read-only. Nothing is recorded until the registry binds it.
+ */
+public class TimedJpaTransactionManager extends JpaTransactionManager implements MeterBinder {
+    public static final String METRIC = "transactions";
+
+    // [readOnly ? 1 : 0][STATUS_COMMITTED, STATUS_ROLLED_BACK, STATUS_UNKNOWN]
+    private volatile Timer[][] timers;
+
+    public TimedJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
+        super.prepareSynchronization(status, definition);
+        Timer[][] current = timers;
+        if (current == null || !status.isNewTransaction() || !status.isNewSynchronization()) return;
+
+        long start = System.nanoTime();
+        Timer[] byOutcome = current[definition.isReadOnly() ? 1 : 0];
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                byOutcome[completionStatus].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String[] outcomes = {"commit", "rollback", "unknown"};
+        Timer[][] bound = new Timer[2][outcomes.length];
+        for (int readOnly = 0; readOnly < 2; readOnly++) {
+            for (int outcome = 0; outcome < outcomes.length; outcome++) {
+                bound[readOnly][outcome] = Timer.builder(METRIC)
+                        .description("Duración de las transacciones JPA")
+                        .tag("outcome", outcomes[outcome])
+                        .tag("read.only", String.valueOf(readOnly == 1))
+                        .register(registry);
+            }
+        }
+        timers = bound;
+    }
+}
@@ -1,25 +1,50 @@
 package pe.edu.unmsm.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pe.edu.unmsm.dto.AccountBulkResultDto;
+import pe.edu.unmsm.dto.AccountDetailsDto;
+import pe.edu.unmsm.dto.AccountPageDto;
+import pe.edu.unmsm.dto.AsyncTransferDto;
 import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResponse;
+import pe.edu.unmsm.dto.TransferResultDto;
 import pe.edu.unmsm.model.Account;
 import pe.edu.unmsm.service.AccountService;
+import pe.edu.unmsm.service.AsyncTransferService;
+import pe.edu.unmsm.service.IdempotencyService;
 
-import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/accounts")
 public class AccountController {
     private final AccountService accountService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncTransferService asyncTransferService;
+    private final ObjectMapper objectMapper;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, IdempotencyService idempotencyService,
+                             AsyncTransferService asyncTransferService, ObjectMapper objectMapper) {
         this.accountService = accountService;
+        this.idempotencyService = idempotencyService;
+        this.asyncTransferService = asyncTransferService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -28,11 +53,35 @@ public class AccountController {
         return accountService.findAll();
     }
 
+    @GetMapping(params = "limit")
+    public AccountPageDto list(@RequestParam(required = false) Long after, @RequestParam int limit) {
+        return accountService.findPage(after, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        ObjectWriter writer = objectMapper.writerFor(Account.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                accountService.streamAll(account -> {
+                    try {
+                        writer.writeValue(generator, account);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Account> details(@PathVariable Long id) {
-        Account account;
+    public ResponseEntity<AccountDetailsDto> details(@PathVariable Long id) {
+        AccountDetailsDto account;
         try {
-            account = accountService.findById(id);
+            account = accountService.findDetails(id);
         } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
         }
@@ -45,17 +94,71 @@ public class AccountController {
         return accountService.save(account);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<AccountBulkResultDto> saveAll(InputStream body) throws IOException {
+        // Un arreglo JSON o NDJSON se leen cuenta por cuenta, sin cargar todo el cuerpo en memoria
+        Iterator<Account> accounts = objectMapper.readerFor(Account.class).readValues(body);
+        AccountBulkResultDto result = accountService.saveAll(accounts);
+        return ResponseEntity.status(result.isComplete() ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY).body(result);
+    }
+
     @PostMapping("/transfer")
-    public ResponseEntity<Map<String, Object>> transfer(@RequestBody TransactionDto dto) {
+    public ResponseEntity<?> transfer(@RequestBody TransactionDto dto,
+                                      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) return transfer(dto);
+        return idempotencyService.execute(idempotencyKey, dto, () -> transfer(dto));
+    }
+
+    private ResponseEntity<TransferResponse> transfer(TransactionDto dto) {
         accountService.transfer(dto.getBankId(), dto.getSourceAccountId(), dto.getTargetAccountId(), dto.getAmount());
+        return ResponseEntity.ok(TransferResponse.ok(dto));
+    }
+
+    @PostMapping("/transfers/async")
+    public ResponseEntity<?> transferAsync(@RequestBody TransactionDto dto,
+                                           @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        // Con clave, un reintento recibe el mismo id en vez de encolar otra transferencia. Un rechazo
+        // sale de execute como excepción, así que la clave se libera y el reintento vuelve a encolar
+        try {
+            if (idempotencyKey == null) return transferAsync(dto);
+            return idempotencyService.execute(idempotencyKey, dto, () -> transferAsync(dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(AsyncTransferDto.error(null, e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(AsyncTransferDto.error(null, "Demasiadas transferencias en cola, reintente más tarde"));
+        }
+    }
+
+    private ResponseEntity<AsyncTransferDto> transferAsync(TransactionDto dto) {
+        AsyncTransferDto accepted = asyncTransferService.submit(dto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/accounts/transfers/" + accepted.id()))
+                .body(accepted);
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("date", LocalDate.now().toString());
-        response.put("status", "OK");
-        response.put("message", "Transferencia realizada con éxito!");
-        response.put("transaction", dto);
+    @GetMapping("/transfers/{id}")
+    public ResponseEntity<AsyncTransferDto> transferStatus(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(asyncTransferService.status(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping(value = "/transfers/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<TransferResultDto> transferBatch(@RequestBody List<TransactionDto> transactions) {
+        return accountService.transferAll(transactions.iterator());
+    }
 
-        return ResponseEntity.ok(response);
+    @PostMapping(value = "/transfers/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<TransferResultDto>> transferBatchStream(InputStream body) throws IOException {
+        Iterator<TransactionDto> transactions = objectMapper.readerFor(TransactionDto.class).readValues(body);
+        List<TransferResultDto> results = accountService.transferAll(transactions);
+        // Una línea ilegible detiene el lote; los resultados anteriores igual se devuelven
+        boolean stopped = !results.isEmpty() && results.get(results.size() - 1).isInvalid();
+        return ResponseEntity.status(stopped ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK).body(results);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,58 @@
+package pe.edu.unmsm.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResponse;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.service.ReactiveAccountService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same endpoints as {@link AccountController} for {@code spring.main.web-application-type=reactive}
+ * (profile {@code reactive}).
+ */
+@RestController
+@RequestMapping("/api/accounts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountController {
+    private final ReactiveAccountService accountService;
+
+    public ReactiveAccountController(ReactiveAccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<Account> list() {
+        return accountService.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Account>> details(@PathVariable Long id) {
+        return accountService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Account> save(@RequestBody Account account) {
+        return accountService.save(account);
+    }
+
+    @PostMapping("/transfer")
+    public Mono<TransferResponse> transfer(@RequestBody TransactionDto dto) {
+        return accountService.transfer(dto.getBankId(), dto.getSourceAccountId(), dto.getTargetAccountId(), dto.getAmount())
+                .then(Mono.fromSupplier(() -> TransferResponse.ok(dto)));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable Long id) {
+        return accountService.deleteById(id);
+    }
+}
@@ -0,0 +1,23 @@
+package pe.edu.unmsm.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Resultado de {@code POST /api/accounts/bulk}. Cada lote se confirma por separado: si uno falla, las
+ * {@code created} cuentas anteriores quedan creadas y desde la posición {@code failedAt} del cuerpo
+ * (contando desde 0) ninguna lo está, así que se puede reenviar a partir de ahí.
+ */
+public record AccountBulkResultDto(int created, Integer failedAt, String message) {
+    public static AccountBulkResultDto ok(int created) {
+        return new AccountBulkResultDto(created, null, "Cuentas creadas");
+    }
+
+    public static AccountBulkResultDto error(int created, String message) {
+        return new AccountBulkResultDto(created, created, message);
+    }
+
+    @JsonIgnore
+    public boolean isComplete() {
+        return failedAt == null;
+    }
+}
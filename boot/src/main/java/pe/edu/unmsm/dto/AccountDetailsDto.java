@@ -0,0 +1,15 @@
+package pe.edu.unmsm.dto;
+
+import pe.edu.unmsm.model.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Lo que devuelve {@code GET /api/accounts/{id}}, leído con una proyección JPQL en vez de la entidad.
+ */
+public record AccountDetailsDto(Long id, String person, BigDecimal balance) {
+    // Usado por el "SELECT new": el saldo llega ya convertido por MoneyConverter
+    public AccountDetailsDto(Long id, String person, Money balance) {
+        this(id, person, balance == null ? null : balance.toBigDecimal());
+    }
+}
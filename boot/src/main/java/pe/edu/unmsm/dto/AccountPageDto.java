@@ -0,0 +1,8 @@
+package pe.edu.unmsm.dto;
+
+import pe.edu.unmsm.model.Account;
+
+import java.util.List;
+
+public record AccountPageDto(List<Account> items, Long nextCursor) {
+}
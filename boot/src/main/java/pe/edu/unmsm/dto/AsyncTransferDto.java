@@ -0,0 +1,35 @@
+package pe.edu.unmsm.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Estado de una transferencia enviada a {@code POST /api/accounts/transfers/async}: PENDING mientras
+ * espera en la cola, RUNNING, y al terminar OK o ERROR con el motivo.
+ */
+public record AsyncTransferDto(String id, String status, String message) {
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String OK = "OK";
+    public static final String ERROR = "ERROR";
+
+    public static AsyncTransferDto pending(String id) {
+        return new AsyncTransferDto(id, PENDING, "Transferencia en cola");
+    }
+
+    public static AsyncTransferDto running(String id) {
+        return new AsyncTransferDto(id, RUNNING, "Transferencia en proceso");
+    }
+
+    public static AsyncTransferDto ok(String id) {
+        return new AsyncTransferDto(id, OK, "Transferencia realizada con éxito!");
+    }
+
+    public static AsyncTransferDto error(String id, String message) {
+        return new AsyncTransferDto(id, ERROR, message);
+    }
+
+    @JsonIgnore
+    public boolean isDone() {
+        return OK.equals(status) || ERROR.equals(status);
+    }
+}
@@ -0,0 +1,97 @@
+package pe.edu.unmsm.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Body of a successful {@code POST /api/accounts/transfer}. The outer object is written by hand with
+ * pre-encoded names and constants, in the same field order as the {@code HashMap} it replaces; the
+ * transaction goes through the mapper's own serializer, so it follows {@link TransactionDto} and the
+ * mapper settings. The date string is shared until the day changes.
+ */
+@JsonSerialize(using = TransferResponse.Serializer.class)
+public record TransferResponse(String date, String message, TransactionDto transaction, String status) {
+    public static final String OK = "OK";
+    public static final String MESSAGE = "Transferencia realizada con éxito!";
+
+    private static final DayCache TODAY = new DayCache(Clock.systemDefaultZone());
+
+    public static TransferResponse ok(TransactionDto transaction) {
+        return new TransferResponse(TODAY.current(), MESSAGE, transaction, OK);
+    }
+
+    /**
+     * {@code LocalDate.now().toString()}, recomputed only after midnight.
+     */
+    static final class DayCache {
+        private final Clock clock;
+        private volatile Day day;
+
+        DayCache(Clock clock) {
+            this.clock = clock;
+            this.day = Day.of(LocalDate.now(clock), clock.getZone());
+        }
+
+        String current() {
+            return current(clock.millis());
+        }
+
+        String current(long nowMillis) {
+            Day current = day;
+            if (nowMillis >= current.endMillis()) {
+                current = Day.of(LocalDate.ofInstant(Instant.ofEpochMilli(nowMillis), clock.getZone()), clock.getZone());
+                day = current;
+            }
+            return current.value();
+        }
+
+        private record Day(String value, long endMillis) {
+            static Day of(LocalDate date, ZoneId zone) {
+                return new Day(date.toString(), date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            }
+        }
+    }
+
+    static final class Serializer extends StdSerializer<TransferResponse> {
+        private static final SerializableString DATE = new SerializedString("date");
+        private static final SerializableString MESSAGE_FIELD = new SerializedString("message");
+        private static final SerializableString TRANSACTION = new SerializedString("transaction");
+        private static final SerializableString STATUS = new SerializedString("status");
+        private static final SerializableString OK_VALUE = new SerializedString(OK);
+        private static final SerializableString MESSAGE_VALUE = new SerializedString(MESSAGE);
+
+        Serializer() {
+            super(TransferResponse.class);
+        }
+
+        @Override
+        public void serialize(TransferResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName(DATE);
+            generator.writeString(response.date());
+            generator.writeFieldName(MESSAGE_FIELD);
+            writeConstant(generator, response.message(), MESSAGE, MESSAGE_VALUE);
+            generator.writeFieldName(TRANSACTION);
+            provider.defaultSerializeValue(response.transaction(), generator);
+            generator.writeFieldName(STATUS);
+            writeConstant(generator, response.status(), OK, OK_VALUE);
+            generator.writeEndObject();
+        }
+
+        private static void writeConstant(JsonGenerator generator, String value, String constant,
+                                          SerializableString encoded) throws IOException {
+            if (constant.equals(value)) generator.writeString(encoded);
+            else generator.writeString(value);
+        }
+    }
+}
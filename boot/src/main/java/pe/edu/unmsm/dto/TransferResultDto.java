@@ -0,0 +1,29 @@
+package pe.edu.unmsm.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Resultado de una transferencia de {@code POST /api/accounts/transfers/batch}, en la posición
+ * {@code index} del cuerpo (contando desde 0). {@code INVALID} marca un elemento que no se pudo leer:
+ * es siempre el último resultado y nada de lo que le sigue en el cuerpo se procesó.
+ */
+public record TransferResultDto(int index, String status, String message) {
+    public static final String INVALID = "INVALID";
+
+    public static TransferResultDto ok(int index) {
+        return new TransferResultDto(index, "OK", "Transferencia realizada con éxito!");
+    }
+
+    public static TransferResultDto error(int index, String message) {
+        return new TransferResultDto(index, "ERROR", message);
+    }
+
+    public static TransferResultDto invalid(int index, String message) {
+        return new TransferResultDto(index, INVALID, message);
+    }
+
+    @JsonIgnore
+    public boolean isInvalid() {
+        return INVALID.equals(status);
+    }
+}
@@ -0,0 +1,40 @@
+package pe.edu.unmsm.jfr;
+
+import jdk.jfr.*;
+import pe.edu.unmsm.model.Money;
+
+/**
+ * {@code Account.debit} or {@code Account.credit} on a loaded entity (optimistic, pessimistic and
+ * batch transfers; the direct mode moves balances in SQL).
+ */
+@Name(BalanceChangeEvent.NAME)
+@Label("Movimiento de saldo")
+@Category({"Banco", "Cuentas"})
+@StackTrace(false)
+public class BalanceChangeEvent extends Event {
+    public static final String NAME = "pe.edu.unmsm.BalanceChange";
+    public static final String DEBIT = "debit";
+    public static final String CREDIT = "credit";
+
+    @Label("Cuenta")
+    private long accountId;
+
+    @Label("Operación")
+    private String operation;
+
+    @Label("Monto")
+    private String amount;
+
+    @Label("Resultado")
+    private String outcome;
+
+    public void finish(Long accountId, String operation, Money amount, String outcome) {
+        end();
+        if (!shouldCommit()) return;
+        this.accountId = accountId == null ? 0 : accountId;
+        this.operation = operation;
+        this.amount = amount.toBigDecimal().toPlainString();
+        this.outcome = outcome;
+        commit();
+    }
+}
@@ -0,0 +1,39 @@
+package pe.edu.unmsm.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Transfers added to a bank's in-memory counter ({@code increment}) or written to
+ * {@code bank_counters.total_transfers} ({@code flush}).
+ */
+@Name(BankCounterEvent.NAME)
+@Label("Contador del banco")
+@Category({"Banco", "Transferencias"})
+@StackTrace(false)
+public class BankCounterEvent extends Event {
+    public static final String NAME = "pe.edu.unmsm.BankCounter";
+    public static final String INCREMENT = "increment";
+    public static final String FLUSH = "flush";
+
+    @Label("Banco")
+    private long bankId;
+
+    @Label("Operación")
+    private String operation;
+
+    @Label("Transferencias")
+    private long transfers;
+
+    @Label("Resultado")
+    private String outcome;
+
+    public void finish(Long bankId, String operation, long transfers, String outcome) {
+        end();
+        if (!shouldCommit()) return;
+        this.bankId = bankId == null ? 0 : bankId;
+        this.operation = operation;
+        this.transfers = transfers;
+        this.outcome = outcome;
+        commit();
+    }
+}
@@ -0,0 +1,104 @@
+package pe.edu.unmsm.jfr;
+
+import jdk.jfr.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One {@code AccountServiceImpl.transfer} attempt. The phases add up to the duration, except in
+ * sequenced mode where the sequencer does the work and only the total is known.
+ */
+@Name(TransferEvent.NAME)
+@Label("Transferencia")
+@Category({"Banco", "Transferencias"})
+@StackTrace(false)
+public class TransferEvent extends Event {
+    public static final String NAME = "pe.edu.unmsm.Transfer";
+    public static final String OK = "ok";
+
+    @Label("Banco")
+    private long bankId;
+
+    @Label("Cuenta origen")
+    private long sourceAccountId;
+
+    @Label("Cuenta destino")
+    private long targetAccountId;
+
+    @Label("Monto")
+    private String amount;
+
+    @Label("Modo")
+    private String mode;
+
+    @Label("Resultado")
+    @Description("ok, o la clase de la excepción")
+    private String outcome = OK;
+
+    @Label("Espera del bloqueo")
+    @Timespan
+    private long lockWait;
+
+    @Label("Validación del banco")
+    @Timespan
+    private long bankCheck;
+
+    @Label("Débito y abono")
+    @Timespan
+    private long balances;
+
+    @Label("Contador y diario")
+    @Timespan
+    private long bookkeeping;
+
+    @Label("Commit")
+    @Description("Cierre de la transacción: flush, commit y liberación de la conexión")
+    @Timespan
+    private long commit;
+
+    private transient long mark;
+
+    public void lockAcquired(long requestedNanos) {
+        if (!isEnabled()) return;
+        mark = System.nanoTime();
+        lockWait = mark - requestedNanos;
+    }
+
+    public void bankChecked() {
+        if (isEnabled()) bankCheck = lap();
+    }
+
+    public void balancesMoved() {
+        if (isEnabled()) balances = lap();
+    }
+
+    public void bookkept() {
+        if (isEnabled()) bookkeeping = lap();
+    }
+
+    public void committed() {
+        if (isEnabled()) commit = lap();
+    }
+
+    public void failed(Throwable e) {
+        outcome = e.getClass().getSimpleName();
+    }
+
+    public void finish(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount, String mode) {
+        end();
+        if (!shouldCommit()) return;
+        this.bankId = bankId == null ? 0 : bankId;
+        this.sourceAccountId = sourceAccountId == null ? 0 : sourceAccountId;
+        this.targetAccountId = targetAccountId == null ? 0 : targetAccountId;
+        this.amount = amount == null ? null : amount.toPlainString();
+        this.mode = mode;
+        commit();
+    }
+
+    private long lap() {
+        long now = System.nanoTime();
+        long elapsed = now - mark;
+        mark = now;
+        return elapsed;
+    }
+}
@@ -0,0 +1,126 @@
+package pe.edu.unmsm.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Prints per-phase latency percentiles from a recording made with {@code jfr/transfers.jfc}:
+ * <pre>java -cp boot.jar pe.edu.unmsm.jfr.TransferJfrAnalyzer transfers.jfr</pre>
+ * Transfers are grouped by mode and outcome, balance changes and bank counter updates by
+ * operation and outcome. Times are in microseconds.
+ */
+public final class TransferJfrAnalyzer {
+    static final String[] PHASES = {"lockWait", "bankCheck", "balances", "bookkeeping", "commit"};
+
+    private TransferJfrAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: TransferJfrAnalyzer <archivo.jfr>");
+            System.exit(2);
+        }
+        report(Path.of(args[0]), System.out);
+    }
+
+    public static void report(Path file, PrintStream out) throws IOException {
+        Map<String, Group> transfers = new TreeMap<>();
+        Map<String, Group> balanceChanges = new TreeMap<>();
+        Map<String, Group> bankCounters = new TreeMap<>();
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case TransferEvent.NAME -> {
+                        Group group = transfers.computeIfAbsent(
+                                event.getString("mode") + " " + event.getString("outcome"), k -> new Group(PHASES));
+                        long[] phases = new long[PHASES.length];
+                        for (int i = 0; i < PHASES.length; i++) phases[i] = event.getDuration(PHASES[i]).toNanos();
+                        group.add(event.getDuration().toNanos(), phases, 0);
+                    }
+                    case BalanceChangeEvent.NAME -> balanceChanges.computeIfAbsent(
+                                    event.getString("operation") + " " + event.getString("outcome"), k -> new Group())
+                            .add(event.getDuration().toNanos(), new long[0], 0);
+                    case BankCounterEvent.NAME -> bankCounters.computeIfAbsent(
+                                    event.getString("operation") + " " + event.getString("outcome"), k -> new Group())
+                            .add(event.getDuration().toNanos(), new long[0], event.getLong("transfers"));
+                    default -> {
+                    }
+                }
+            }
+        }
+        out.println("== Transferencias (modo resultado), µs p50/p99");
+        print(out, transfers, PHASES, false);
+        out.println("== Movimientos de saldo (operación resultado), µs p50/p99");
+        print(out, balanceChanges, new String[0], false);
+        out.println("== Contador del banco (operación resultado), µs p50/p99");
+        print(out, bankCounters, new String[0], true);
+    }
+
+    private static void print(PrintStream out, Map<String, Group> groups, String[] phases, boolean withTransfers) {
+        if (groups.isEmpty()) {
+            out.println("  (sin eventos)");
+            return;
+        }
+        groups.forEach((key, group) -> {
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "  %-32s n=%-8d total=%s",
+                    key, group.count, group.percentiles(group.durations)));
+            for (int i = 0; i < phases.length; i++) {
+                line.append(' ').append(phases[i]).append('=').append(group.percentiles(group.phases[i]));
+            }
+            if (withTransfers) line.append(" transferencias=").append(group.transfers);
+            out.println(line);
+        });
+    }
+
+    private static final class Group {
+        final LongList durations = new LongList();
+        final LongList[] phases;
+        long count;
+        long transfers;
+
+        Group(String... phaseNames) {
+            phases = new LongList[phaseNames.length];
+            for (int i = 0; i < phases.length; i++) phases[i] = new LongList();
+        }
+
+        void add(long duration, long[] phaseDurations, long transfers) {
+            count++;
+            this.transfers += transfers;
+            durations.add(duration);
+            for (int i = 0; i < phaseDurations.length; i++) phases[i].add(phaseDurations[i]);
+        }
+
+        String percentiles(LongList values) {
+            long[] sorted = values.sorted();
+            return String.format(Locale.ROOT, "%.1f/%.1f", percentile(sorted, 0.50) / 1000.0, percentile(sorted, 0.99) / 1000.0);
+        }
+    }
+
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static final class LongList {
+        long[] values = new long[64];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
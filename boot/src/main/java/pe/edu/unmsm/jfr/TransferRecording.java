@@ -0,0 +1,68 @@
+package pe.edu.unmsm.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Records the bundled {@code jfr/transfers.jfc} profile while the application runs and dumps it to
+ * {@code app.jfr.file} on shutdown. Without this, the same profile can be passed to
+ * {@code -XX:StartFlightRecording=settings=...}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true")
+public class TransferRecording {
+    public static final String SETTINGS = "jfr/transfers.jfc";
+    private static final Logger log = LoggerFactory.getLogger(TransferRecording.class);
+
+    private final Recording recording;
+    private final Path file;
+
+    public TransferRecording(@Value("${app.jfr.file:data/jfr/transfers.jfr}") Path file,
+                             @Value("${app.jfr.max-age-minutes:60}") long maxAgeMinutes) throws IOException, ParseException {
+        this.file = file.toAbsolutePath();
+        Files.createDirectories(this.file.getParent());
+        this.recording = new Recording(settings());
+        recording.setName("transfers");
+        recording.setToDisk(true);
+        recording.setDestination(this.file);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.start();
+        log.info("Grabación JFR de transferencias iniciada, se escribirá en {}", this.file);
+    }
+
+    public static Configuration settings() throws IOException, ParseException {
+        InputStream in = TransferRecording.class.getClassLoader().getResourceAsStream(SETTINGS);
+        if (in == null) throw new IOException("No se encontró " + SETTINGS + " en el classpath");
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @PreDestroy
+    public void stop() {
+        // con destination fijada, stop() escribe el archivo
+        recording.stop();
+        recording.close();
+        log.info("Grabación JFR de transferencias guardada en {}", file);
+    }
+}
@@ -0,0 +1,240 @@
+package pe.edu.unmsm.journal;
+
+import pe.edu.unmsm.model.Money;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Balances of every account and transfer count of every bank as of a journal sequence, in a
+ * read-only memory-mapped file. Entries have a fixed size and are sorted by id, so opening is
+ * constant time and a lookup is a binary search over the mapped file. The snapshot also lists the
+ * accounts whose balance changed since sequence 0, which are the only rows to fix up on startup.
+ */
+public class BalanceSnapshot {
+    static final int HEADER_SIZE = 32;
+    static final int ACCOUNT_SIZE = 20;
+    static final int BANK_SIZE = 12;
+    static final int CHANGED_SIZE = 8;
+    private static final int MAGIC = 0x534e5042;
+    private static final int VERSION = 2;
+
+    private final MappedByteBuffer buffer;
+    private final long sequence;
+    private final int accounts;
+    private final int banks;
+    private final int changed;
+    private final int changedOffset;
+    private final int banksOffset;
+
+    private BalanceSnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Snapshot de saldos inválido");
+        }
+        this.sequence = buffer.getLong(8);
+        this.accounts = buffer.getInt(16);
+        this.banks = buffer.getInt(20);
+        this.changed = buffer.getInt(24);
+        if (accounts < 0 || banks < 0 || changed < 0 || HEADER_SIZE + (long) accounts * ACCOUNT_SIZE
+                + (long) changed * CHANGED_SIZE + (long) banks * BANK_SIZE != buffer.limit()) {
+            throw new IllegalStateException("Snapshot de saldos incompleto");
+        }
+        this.changedOffset = HEADER_SIZE + accounts * ACCOUNT_SIZE;
+        this.banksOffset = changedOffset + changed * CHANGED_SIZE;
+    }
+
+    public static BalanceSnapshot open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new BalanceSnapshot(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Writer writer(Path file, long sequence) {
+        return new Writer(file, sequence);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getAccountCount() {
+        return accounts;
+    }
+
+    public int getBankCount() {
+        return banks;
+    }
+
+    public int getChangedCount() {
+        return changed;
+    }
+
+    /**
+     * Balance of the account, or null if it is not in the snapshot.
+     */
+    public Money balance(long accountId) {
+        int slot = search(HEADER_SIZE, ACCOUNT_SIZE, accounts, accountId);
+        if (slot < 0) return null;
+        int start = HEADER_SIZE + slot * ACCOUNT_SIZE;
+        return Money.ofMinor(buffer.getLong(start + 8), buffer.getInt(start + 16));
+    }
+
+    /**
+     * Transfer count of the bank, or -1 if it is not in the snapshot.
+     */
+    public int totalTransfers(long bankId) {
+        int slot = search(banksOffset, BANK_SIZE, banks, bankId);
+        return slot < 0 ? -1 : buffer.getInt(banksOffset + slot * BANK_SIZE + 8);
+    }
+
+    public void forEachAccount(AccountEntryConsumer consumer) {
+        for (int slot = 0, start = HEADER_SIZE; slot < accounts; slot++, start += ACCOUNT_SIZE) {
+            consumer.accept(buffer.getLong(start), buffer.getLong(start + 8), buffer.getInt(start + 16));
+        }
+    }
+
+    /**
+     * Ids, in ascending order, of the accounts whose balance changed since sequence 0.
+     */
+    public void forEachChanged(LongConsumer consumer) {
+        for (int slot = 0, start = changedOffset; slot < changed; slot++, start += CHANGED_SIZE) {
+            consumer.accept(buffer.getLong(start));
+        }
+    }
+
+    public void forEachBank(BankEntryConsumer consumer) {
+        for (int slot = 0, start = banksOffset; slot < banks; slot++, start += BANK_SIZE) {
+            consumer.accept(buffer.getLong(start), buffer.getInt(start + 8));
+        }
+    }
+
+    private int search(int offset, int entrySize, int count, long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long current = buffer.getLong(offset + mid * entrySize);
+            if (current < id) low = mid + 1;
+            else if (current > id) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    @FunctionalInterface
+    public interface AccountEntryConsumer {
+        void accept(long accountId, long units, int scale);
+    }
+
+    @FunctionalInterface
+    public interface BankEntryConsumer {
+        void accept(long bankId, int totalTransfers);
+    }
+
+    /**
+     * Writes a snapshot to a temporary file and moves it into place on {@link #finish}, so a snapshot
+     * file is either complete or absent. Accounts must come in ascending id order, followed by the
+     * changed account ids, also in ascending order.
+     */
+    public static class Writer implements AutoCloseable {
+        private final Path file;
+        private final Path temporary;
+        private final long sequence;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long lastAccountId = Long.MIN_VALUE;
+        private long lastChangedId = Long.MIN_VALUE;
+        private int accounts;
+        private int changed;
+        private boolean finished;
+
+        private Writer(Path file, long sequence) {
+            this.file = file;
+            this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            this.sequence = sequence;
+            try {
+                this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                channel.position(HEADER_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public Writer account(long accountId, long units, int scale) {
+            if (changed > 0) throw new IllegalStateException("Las cuentas van antes que las modificadas");
+            if (accountId <= lastAccountId) throw new IllegalArgumentException("Las cuentas deben ir en orden ascendente");
+            lastAccountId = accountId;
+            if (buffer.remaining() < ACCOUNT_SIZE) flush();
+            buffer.putLong(accountId).putLong(units).putInt(scale);
+            accounts++;
+            return this;
+        }
+
+        public Writer changed(long accountId) {
+            if (accountId <= lastChangedId) throw new IllegalArgumentException("Las cuentas deben ir en orden ascendente");
+            lastChangedId = accountId;
+            if (buffer.remaining() < CHANGED_SIZE) flush();
+            buffer.putLong(accountId);
+            changed++;
+            return this;
+        }
+
+        public BalanceSnapshot finish(SortedMap<Long, Integer> banks) {
+            try {
+                for (Map.Entry<Long, Integer> bank : banks.entrySet()) {
+                    if (buffer.remaining() < BANK_SIZE) flush();
+                    buffer.putLong(bank.getKey()).putInt(bank.getValue());
+                }
+                flush();
+                buffer.putInt(MAGIC).putInt(VERSION).putLong(sequence).putInt(accounts).putInt(banks.size())
+                        .putInt(changed).putInt(0).flip();
+                channel.write(buffer, 0);
+                channel.force(true);
+                channel.close();
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+                finished = true;
+                return open(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (finished) return;
+            try {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) channel.write(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
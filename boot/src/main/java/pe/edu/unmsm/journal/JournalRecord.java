@@ -0,0 +1,17 @@
+package pe.edu.unmsm.journal;
+
+import java.math.BigDecimal;
+
+public record JournalRecord(long sequence, long timestamp, long bankId, long sourceAccountId, long targetAccountId,
+                            long amountUnits, int amountScale) {
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(amountUnits, amountScale);
+    }
+
+    /**
+     * 1 for a transfer, -1 for the reversal of one that did not commit (negative amount).
+     */
+    public int transfers() {
+        return amountUnits < 0 ? -1 : 1;
+    }
+}
@@ -0,0 +1,76 @@
+package pe.edu.unmsm.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.model.Money;
+import pe.edu.unmsm.repo.AccountRepo;
+import pe.edu.unmsm.repo.BankRepo;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vuelve a aplicar el diario sobre los saldos iniciales al arrancar. Solo tiene sentido cuando la base
+ * de datos se crea de nuevo en cada arranque (H2 en memoria con import.sql). Las cuentas que ya no
+ * existen (creadas o borradas en ejecución) se omiten y se informan en el log. Necesita el diario
+ * completo: si los snapshots ya borraron segmentos, el arranque falla en vez de aplicar solo una parte.
+ */
+@Component
+@ConditionalOnProperty(name = {"app.journal.enabled", "app.journal.replay-on-startup"}, havingValue = "true")
+public class JournalReplayRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(JournalReplayRunner.class);
+
+    private final TransferJournal journal;
+    private final SnapshotService snapshots;
+    private final AccountRepo accountRepo;
+    private final BankRepo bankRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    public JournalReplayRunner(TransferJournal journal, SnapshotService snapshots, AccountRepo accountRepo, BankRepo bankRepo,
+                               PlatformTransactionManager transactionManager) {
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.accountRepo = accountRepo;
+        this.bankRepo = bankRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Con snapshots la recuperación ya se hizo al arrancar, a partir del último snapshot
+        if (snapshots.isEnabled()) return;
+        Map<Long, Money> deltas = new HashMap<>();
+        Map<Long, Integer> transfersByBank = new HashMap<>();
+        long last = journal.replay(0, record -> {
+            Money amount = Money.ofMinor(record.amountUnits(), record.amountScale());
+            deltas.computeIfAbsent(record.sourceAccountId(), id -> Money.ofMinor(0, 0)).subtract(amount);
+            deltas.computeIfAbsent(record.targetAccountId(), id -> Money.ofMinor(0, 0)).add(amount);
+            transfersByBank.merge(record.bankId(), record.transfers(), Integer::sum);
+        });
+        if (last == 0) return;
+
+        Map<Long, BigDecimal> changes = new HashMap<>();
+        deltas.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) changes.put(accountId, delta.toBigDecimal());
+        });
+        Set<Long> missing = transactionTemplate.execute(status -> {
+            transfersByBank.forEach(bankRepo::incrementTotalTransfers);
+            return accountRepo.applyBalanceDeltasToExisting(changes);
+        });
+        if (missing != null && !missing.isEmpty()) {
+            log.warn("Se omitieron los movimientos de {} cuentas que no existen al arrancar: {}", missing.size(),
+                    missing.stream().sorted().limit(20).toList());
+        }
+        log.info("Diario aplicado hasta la secuencia {}: {} cuentas, {} transferencias", last,
+                changes.size() - (missing == null ? 0 : missing.size()),
+                transfersByBank.values().stream().mapToInt(Integer::intValue).sum());
+    }
+}
@@ -0,0 +1,281 @@
+package pe.edu.unmsm.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.model.Money;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Periodic snapshots of the balances ({@code snapshot-<sequence>.bin}), built from the previous
+ * snapshot plus the journal records after it, so taking one never reads or locks the accounts table.
+ * On startup the latest snapshot is mapped and only the journal tail is replayed: the database is
+ * brought to that state and the {@link pe.edu.unmsm.sequencer.TransferSequencer} takes its balances
+ * from there instead of loading them. Requires {@code app.journal.replay-on-startup}, since only then
+ * the database is known to match the journal.
+ * <p>
+ * Startup does not read the accounts table, but it still writes every account changed since
+ * sequence 0, because the database is recreated from import.sql on each start. That set only grows,
+ * so startup time still depends on how many accounts have ever been touched (about 7 s in
+ * {@code SnapshotLoadTest}, where a tail of 10^5 transfers touches some 180k of 10^6 accounts); the
+ * goal of under a second at 10^7 accounts is not met. Leaving those rows stale and serving them from the snapshot would require every path
+ * that reads or writes a balance row (JPA loads, the JPQL debit/credit, R2DBC) to go through here first.
+ */
+@Component
+public class SnapshotService implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private final TransferJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final int retain;
+
+    private final Map<Long, Money> tailDeltas = new HashMap<>();
+    private final Map<Long, Integer> tailTransfers = new HashMap<>();
+    private final Set<Long> taken = ConcurrentHashMap.newKeySet();
+    private volatile BalanceSnapshot recovered;
+    private volatile BalanceSnapshot latest;
+    private volatile boolean running;
+
+    public SnapshotService(TransferJournal journal, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           @Value("${app.snapshot.enabled:false}") boolean enabled,
+                           @Value("${app.journal.replay-on-startup:false}") boolean replayOnStartup,
+                           @Value("${app.snapshot.dir:data/snapshot}") String directory,
+                           @Value("${app.snapshot.retain:2}") int retain) {
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled && replayOnStartup && journal.isEnabled();
+        this.directory = Paths.get(directory);
+        this.retain = Math.max(retain, 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Balance recovered on startup, or null if it has to be read from the database. Each account is
+     * handed out once: afterwards its balance is owned by whoever took it.
+     */
+    public Money takeBalance(Long accountId) {
+        BalanceSnapshot snapshot = recovered;
+        if (snapshot == null || accountId == null || !taken.add(accountId)) return null;
+        Money balance = snapshot.balance(accountId);
+        if (balance == null) return null;
+        Money delta = tailDeltas.get(accountId);
+        return delta == null ? balance : balance.add(delta);
+    }
+
+    public boolean containsBank(Long bankId) {
+        BalanceSnapshot snapshot = recovered;
+        return snapshot != null && bankId != null && snapshot.totalTransfers(bankId) >= 0;
+    }
+
+    /**
+     * The recovered balance of the account is no longer valid (it was changed outside the journal).
+     */
+    public void forget(Long accountId) {
+        if (recovered != null && accountId != null) taken.add(accountId);
+    }
+
+    public BalanceSnapshot getLatest() {
+        return latest;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    // Antes que el servidor web y el secuenciador
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Path> files = snapshots();
+        BalanceSnapshot snapshot = files.isEmpty() ? writeBase() : BalanceSnapshot.open(files.get(files.size() - 1));
+        long last = journal.replay(snapshot.getSequence(), record -> {
+            Money amount = Money.ofMinor(record.amountUnits(), record.amountScale());
+            tailDeltas.computeIfAbsent(record.sourceAccountId(), id -> Money.ofMinor(0, 0)).subtract(amount);
+            tailDeltas.computeIfAbsent(record.targetAccountId(), id -> Money.ofMinor(0, 0)).add(amount);
+            tailTransfers.merge(record.bankId(), record.transfers(), Integer::sum);
+        });
+        int restored = restore(snapshot);
+        recovered = snapshot;
+        latest = snapshot;
+        running = true;
+        log.info("Saldos recuperados del snapshot {} ({} cuentas, {} filas actualizadas) y {} registros del diario en {} ms",
+                snapshot.getSequence(), snapshot.getAccountCount(), restored, last - snapshot.getSequence(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        snapshot();
+        running = false;
+    }
+
+    /**
+     * Writes a new snapshot with the journal records since the latest one. Accounts created after
+     * the latest snapshot are not in the journal's starting point, so they are left out, like in
+     * {@link JournalReplayRunner}.
+     */
+    @Scheduled(fixedDelayString = "${app.snapshot.interval-ms:60000}", initialDelayString = "${app.snapshot.interval-ms:60000}")
+    public synchronized void snapshot() {
+        if (!running) return;
+        BalanceSnapshot previous = latest;
+        long sequence = journal.getLastSequence();
+        if (sequence <= previous.getSequence()) return;
+
+        Map<Long, Money> deltas = new HashMap<>();
+        Map<Long, Integer> transfers = new HashMap<>();
+        journal.replay(previous.getSequence(), record -> {
+            if (record.sequence() > sequence) return;
+            Money amount = Money.ofMinor(record.amountUnits(), record.amountScale());
+            deltas.computeIfAbsent(record.sourceAccountId(), id -> Money.ofMinor(0, 0)).subtract(amount);
+            deltas.computeIfAbsent(record.targetAccountId(), id -> Money.ofMinor(0, 0)).add(amount);
+            transfers.merge(record.bankId(), record.transfers(), Integer::sum);
+        });
+        try (BalanceSnapshot.Writer writer = BalanceSnapshot.writer(file(sequence), sequence)) {
+            List<Long> touched = new ArrayList<>();
+            previous.forEachAccount((accountId, units, scale) -> {
+                Money delta = deltas.get(accountId);
+                if (delta == null) {
+                    writer.account(accountId, units, scale);
+                } else {
+                    Money balance = Money.ofMinor(units, scale).add(delta);
+                    writer.account(accountId, balance.getUnits(), balance.getScale());
+                    touched.add(accountId);
+                }
+            });
+            // Ambas listas están ordenadas: se mezclan sin duplicados
+            int[] next = {0};
+            previous.forEachChanged(accountId -> {
+                while (next[0] < touched.size() && touched.get(next[0]) < accountId) writer.changed(touched.get(next[0]++));
+                if (next[0] < touched.size() && touched.get(next[0]) == accountId) next[0]++;
+                writer.changed(accountId);
+            });
+            while (next[0] < touched.size()) writer.changed(touched.get(next[0]++));
+            SortedMap<Long, Integer> banks = new TreeMap<>();
+            previous.forEachBank((bankId, total) -> banks.put(bankId, total + transfers.getOrDefault(bankId, 0)));
+            latest = writer.finish(banks);
+        }
+        prune();
+    }
+
+    /**
+     * The database is created from import.sql on every start, which is the state at sequence 0.
+     */
+    private BalanceSnapshot writeBase() {
+        try (BalanceSnapshot.Writer writer = BalanceSnapshot.writer(file(0), 0)) {
+            jdbcTemplate.query("SELECT id, balance FROM accounts ORDER BY id", rs -> {
+                Money balance = Money.of(rs.getBigDecimal(2));
+                writer.account(rs.getLong(1), balance.getUnits(), balance.getScale());
+            });
+            SortedMap<Long, Integer> banks = new TreeMap<>();
+            jdbcTemplate.query("SELECT bank_id, total_transfers FROM bank_counters", rs -> {
+                banks.put(rs.getLong(1), rs.getInt(2));
+            });
+            return writer.finish(banks);
+        }
+    }
+
+    /**
+     * Brings the database, which is at sequence 0, to the snapshot plus the journal tail. Only the
+     * accounts changed since sequence 0 and those in the tail are written; every other row already
+     * holds its snapshot balance, so the accounts table is not read. Returns the number of accounts
+     * written, which grows with every account ever touched.
+     */
+    private int restore(BalanceSnapshot snapshot) {
+        List<Object[]> balances = new ArrayList<>();
+        List<Object[]> counters = new ArrayList<>();
+        snapshot.forEachChanged(accountId -> {
+            if (!tailDeltas.containsKey(accountId)) balances.add(new Object[]{snapshot.balance(accountId).toBigDecimal(), accountId});
+        });
+        tailDeltas.forEach((accountId, delta) -> {
+            Money expected = snapshot.balance(accountId);
+            if (expected != null) balances.add(new Object[]{expected.add(delta).toBigDecimal(), accountId});
+        });
+        // Los bancos son pocos: se escriben todos
+        snapshot.forEachBank((bankId, total) -> counters.add(new Object[]{total + tailTransfers.getOrDefault(bankId, 0), bankId}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("UPDATE accounts SET balance = ?, version = version + 1 WHERE id = ?", balances);
+            jdbcTemplate.batchUpdate("UPDATE bank_counters SET total_transfers = ? WHERE bank_id = ?", counters);
+        });
+        return balances.size();
+    }
+
+    /**
+     * Keeps the latest {@code retain} snapshots and the journal segments needed to roll forward from
+     * the oldest of them.
+     */
+    private void prune() {
+        List<Path> files = snapshots();
+        try {
+            for (int i = 0; i < files.size() - retain; i++) {
+                Files.deleteIfExists(files.get(i));
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo borrar un snapshot antiguo", e);
+            return;
+        }
+        Path oldest = files.get(Math.max(files.size() - retain, 0));
+        String name = oldest.getFileName().toString();
+        long sequence = Long.parseLong(name.substring("snapshot-".length(), name.length() - ".bin".length()));
+        int deleted = journal.prune(sequence);
+        if (deleted > 0) log.info("Se borraron {} segmentos del diario anteriores al snapshot {}", deleted, sequence);
+    }
+
+    private Path file(long sequence) {
+        return directory.resolve(String.format("snapshot-%020d.bin", sequence));
+    }
+
+    private List<Path> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("snapshot-\\d{20}\\.bin"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
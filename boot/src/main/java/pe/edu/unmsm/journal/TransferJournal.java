@@ -0,0 +1,386 @@
+package pe.edu.unmsm.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pe.edu.unmsm.model.Money;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only record of every committed transfer, written to memory-mapped segment files
+ * ({@code journal-<first sequence>.log}). Records have a fixed size and a checksum, so after a crash
+ * the journal ends at the last complete record. The records of a transaction are appended and forced
+ * to disk before it commits, so a committed transfer is never missing from the journal; if the commit
+ * then fails they are cancelled with reversal records (negative amount). A crash in between leaves
+ * the transfer in the journal, and replay applies it.
+ * <p>
+ * Forcing is a group commit: committers append under the journal lock and then wait for the "forced
+ * up to" sequence to reach their last record. One of them forces the segment for everything appended
+ * so far, after waiting up to {@code fsync.max-wait-us} for {@code fsync.batch-size} records to gather;
+ * the others find their records already covered.
+ */
+@Component
+public class TransferJournal {
+    static final int RECORD_SIZE = 56;
+    private static final int CHECKSUM_OFFSET = 52;
+    private static final Logger log = LoggerFactory.getLogger(TransferJournal.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchFilled = lock.newCondition();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final AtomicLong forcedSequence = new AtomicLong();
+    private final LongAdder forces = new LongAdder();
+    private final boolean enabled;
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int fsyncBatchSize;
+    private final long fsyncMaxWaitNanos;
+
+    private MappedByteBuffer segment;
+    private long nextSequence = 1;
+
+    public TransferJournal(boolean enabled, String directory, int segmentSize) {
+        this(enabled, directory, segmentSize, 1, 0);
+    }
+
+    @Autowired
+    public TransferJournal(@Value("${app.journal.enabled:false}") boolean enabled,
+                           @Value("${app.journal.dir:data/journal}") String directory,
+                           @Value("${app.journal.segment-size:67108864}") int segmentSize,
+                           @Value("${app.journal.fsync.batch-size:64}") int fsyncBatchSize,
+                           @Value("${app.journal.fsync.max-wait-us:0}") long fsyncMaxWaitMicros) {
+        if (segmentSize < RECORD_SIZE) throw new IllegalArgumentException("El segmento debe tener al menos un registro");
+        if (fsyncBatchSize < 1 || fsyncMaxWaitMicros < 0) throw new IllegalArgumentException("Configuración de fsync inválida");
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.recordsPerSegment = segmentSize / RECORD_SIZE;
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.fsyncMaxWaitNanos = TimeUnit.MICROSECONDS.toNanos(fsyncMaxWaitMicros);
+        if (enabled) open();
+    }
+
+    /**
+     * Appends the transfer durably before the current transaction commits, or right away outside a
+     * transaction. A failure to append rolls the transaction back.
+     */
+    public void record(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        if (!enabled) return;
+        Transfer transfer = new Transfer(bankId, sourceAccountId, targetAccountId, Money.of(amount));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            awaitForced(append(transfer));
+            return;
+        }
+        PendingRecords pending = (PendingRecords) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRecords();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.transfers.add(transfer);
+    }
+
+    /**
+     * Appends a reversal of a transfer that was recorded but did not commit.
+     */
+    public void cancel(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        if (!enabled) return;
+        awaitForced(append(new Transfer(bankId, sourceAccountId, targetAccountId, Money.of(amount.negate()))));
+    }
+
+    public long append(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        if (!enabled) throw new IllegalStateException("El diario de transferencias está desactivado");
+        return append(new Transfer(bankId, sourceAccountId, targetAccountId, Money.of(amount)));
+    }
+
+    private long append(Transfer transfer) {
+        lock.lock();
+        try {
+            if (segment == null || !segment.hasRemaining()) roll();
+            long sequence = nextSequence++;
+            int start = segment.position();
+            segment.putLong(sequence)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(transfer.bankId())
+                    .putLong(transfer.sourceAccountId())
+                    .putLong(transfer.targetAccountId())
+                    .putLong(transfer.amount().getUnits())
+                    .putInt(transfer.amount().getScale())
+                    .putInt(checksum(segment, start));
+            if (sequence - forcedSequence.get() >= fsyncBatchSize) batchFilled.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calls {@code consumer} with every record after {@code afterSequence}, in order, and returns the last sequence read.
+     */
+    public long replay(long afterSequence, Consumer<JournalRecord> consumer) {
+        long last = afterSequence;
+        List<Path> segments = segments();
+        if (!segments.isEmpty() && firstSequence(segments.get(0)) > afterSequence + 1) {
+            throw new IllegalStateException("El diario ya no tiene los registros posteriores a la secuencia " + afterSequence);
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= afterSequence + 1) continue;
+            long first = firstSequence(segments.get(i));
+            MappedByteBuffer buffer = map(segments.get(i), FileChannel.MapMode.READ_ONLY);
+            JournalRecord record;
+            for (int slot = 0; (record = read(buffer, slot, first + slot)) != null; slot++) {
+                if (record.sequence() > afterSequence) consumer.accept(record);
+                last = Math.max(last, record.sequence());
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Deletes the segments whose records all have a sequence up to {@code throughSequence}. The
+     * current segment is always kept.
+     */
+    public int prune(long throughSequence) {
+        int deleted = 0;
+        lock.lock();
+        try {
+            List<Path> segments = segments();
+            for (int i = 0; i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= throughSequence + 1; i++) {
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo borrar un segmento antiguo del diario", e);
+        } finally {
+            lock.unlock();
+        }
+        return deleted;
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    long getForcedSequence() {
+        return forcedSequence.get();
+    }
+
+    long getForceCount() {
+        return forces.sum();
+    }
+
+    /**
+     * Forces everything appended so far without waiting for a batch to gather.
+     */
+    @PreDestroy
+    public void force() {
+        forceLock.lock();
+        try {
+            forceAppended(0);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Returns once the record with {@code sequence} is on disk.
+     */
+    private void awaitForced(long sequence) {
+        if (forcedSequence.get() >= sequence) return;
+        forceLock.lock();
+        try {
+            // Mientras este hilo esperaba el candado, otro pudo forzar un grupo que ya incluye su registro
+            if (forcedSequence.get() < sequence) forceAppended(fsyncMaxWaitNanos);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Forces every record appended so far, after waiting up to {@code maxWaitNanos} for
+     * {@code fsyncBatchSize} of them to gather. Only called with {@code forceLock} held; the journal
+     * lock is released during the force, so appends go on in the meantime.
+     */
+    private void forceAppended(long maxWaitNanos) {
+        MappedByteBuffer forced;
+        long through;
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (remaining > 0 && nextSequence - 1 - forcedSequence.get() < fsyncBatchSize) {
+                remaining = batchFilled.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            // Se deja de esperar al grupo, pero el registro igual se fuerza antes de volver
+            Thread.currentThread().interrupt();
+        } finally {
+            forced = segment;
+            through = nextSequence - 1;
+            lock.unlock();
+        }
+        if (through <= forcedSequence.get()) return;
+        // Los segmentos anteriores se forzaron al rotar, así que basta con el actual
+        if (forced != null) forced.force();
+        forces.increment();
+        forcedSequence.accumulateAndGet(through, Math::max);
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Path> segments = segments();
+        if (segments.isEmpty()) return;
+
+        Path last = segments.get(segments.size() - 1);
+        long first = firstSequence(last);
+        segment = map(last, FileChannel.MapMode.READ_WRITE);
+        int slot = 0;
+        while (read(segment, slot, first + slot) != null) slot++;
+        nextSequence = first + slot;
+        forcedSequence.set(nextSequence - 1);
+        segment.position(slot * RECORD_SIZE);
+        // Lo que queda tras un registro incompleto no debe confundirse con registros nuevos
+        for (int start = slot * RECORD_SIZE; start + RECORD_SIZE <= segment.limit(); start += RECORD_SIZE) {
+            segment.putLong(start, 0);
+        }
+        log.info("Diario de transferencias abierto en {}, última secuencia {}", directory, nextSequence - 1);
+    }
+
+    private void roll() {
+        if (segment != null) {
+            segment.force();
+            forcedSequence.accumulateAndGet(nextSequence - 1, Math::max);
+        }
+        segment = map(directory.resolve(String.format("journal-%020d.log", nextSequence)), FileChannel.MapMode.READ_WRITE);
+    }
+
+    private MappedByteBuffer map(Path file, FileChannel.MapMode mode) {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+            long size = raf.length() > 0 || mode == FileChannel.MapMode.READ_ONLY ? raf.length() : (long) recordsPerSegment * RECORD_SIZE;
+            MappedByteBuffer buffer = raf.getChannel().map(mode, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> segments() {
+        if (!Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files.filter(file -> file.getFileName().toString().matches("journal-\\d{20}\\.log"))
+                    .sorted()
+                    .toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+
+    /**
+     * Record at {@code slot}, or null if the segment ends there (unwritten or torn record).
+     */
+    private static JournalRecord read(MappedByteBuffer buffer, int slot, long sequence) {
+        int start = slot * RECORD_SIZE;
+        if (start + RECORD_SIZE > buffer.limit()) return null;
+        if (buffer.getLong(start) != sequence) return null;
+        if (buffer.getInt(start + CHECKSUM_OFFSET) != checksum(buffer, start)) return null;
+        return new JournalRecord(sequence, buffer.getLong(start + 8), buffer.getLong(start + 16),
+                buffer.getLong(start + 24), buffer.getLong(start + 32), buffer.getLong(start + 40),
+                buffer.getInt(start + 48));
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int start) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private record Transfer(Long bankId, Long sourceAccountId, Long targetAccountId, Money amount) {
+    }
+
+    /**
+     * Records of the current transaction: appended in {@code beforeCommit}, which returns once the
+     * group commit has forced them; reversed if the commit fails afterwards.
+     */
+    private class PendingRecords implements TransactionSynchronization {
+        private final List<Transfer> transfers = new ArrayList<>();
+        private int appended;
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(TransferJournal.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TransferJournal.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            long last = 0;
+            for (Transfer transfer : transfers) {
+                last = append(transfer);
+                appended++;
+            }
+            awaitForced(last);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransferJournal.this);
+            if (status == STATUS_COMMITTED || appended == 0) return;
+            try {
+                long last = 0;
+                for (Transfer transfer : transfers.subList(0, appended)) {
+                    Money reversal = Money.ofMinor(-transfer.amount().getUnits(), transfer.amount().getScale());
+                    last = append(new Transfer(transfer.bankId(), transfer.sourceAccountId(), transfer.targetAccountId(), reversal));
+                }
+                awaitForced(last);
+            } catch (RuntimeException e) {
+                log.error("No se pudieron anular en el diario {} transferencias revertidas", appended, e);
+            }
+        }
+    }
+}
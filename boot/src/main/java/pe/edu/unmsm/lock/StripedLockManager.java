@@ -0,0 +1,143 @@
+package pe.edu.unmsm.lock;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process locks keyed by account id. Ids are mapped onto a fixed number of stripes and the
+ * stripes of an operation are always taken in ascending order, so two transfers over the same
+ * pair of accounts (in either direction) can never deadlock each other. Locking can be turned off
+ * when several instances share the database and the database locks are enough.
+ */
+@Component
+public class StripedLockManager implements MeterBinder {
+    private final ReentrantLock[] stripes;
+    private final LongAdder[] waitNanos;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final boolean enabled;
+
+    public StripedLockManager(int stripeCount) {
+        this(stripeCount, true);
+    }
+
+    @Autowired
+    public StripedLockManager(@Value("${app.transfer.lock.stripes:64}") int stripeCount,
+                              @Value("${app.transfer.lock.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        if (stripeCount < 1) throw new IllegalArgumentException("Se requiere al menos un stripe");
+        this.stripes = new ReentrantLock[stripeCount];
+        this.waitNanos = new LongAdder[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            waitNanos[i] = new LongAdder();
+        }
+    }
+
+    public void runLocked(Long firstId, Long secondId, Runnable action) {
+        callLocked(firstId, secondId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T callLocked(Long firstId, Long secondId, Supplier<T> action) {
+        int first = stripeOf(firstId);
+        int second = stripeOf(secondId);
+        if (first == second) return callLocked(new int[]{first}, action);
+        return callLocked(first < second ? new int[]{first, second} : new int[]{second, first}, action);
+    }
+
+    public <T> T callLocked(Collection<Long> ids, Supplier<T> action) {
+        int[] indexes = ids.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        return callLocked(indexes, action);
+    }
+
+    public int stripeOf(Long id) {
+        if (id == null) return 0;
+        return Math.floorMod(Long.hashCode(id), stripes.length);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int getQueueLength(int stripe) {
+        return stripes[stripe].getQueueLength();
+    }
+
+    public long getWaitNanos(int stripe) {
+        return waitNanos[stripe].sum();
+    }
+
+    public long getTotalWaitNanos() {
+        return Arrays.stream(waitNanos).mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getContendedAcquisitions() {
+        return contended.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transfer.lock.acquisitions", acquisitions, LongAdder::sum)
+                .description("Stripes adquiridos")
+                .register(registry);
+        FunctionCounter.builder("transfer.lock.contended", contended, LongAdder::sum)
+                .description("Stripes que tuvieron que esperar a otro hilo")
+                .register(registry);
+        FunctionCounter.builder("transfer.lock.wait", this, manager -> manager.getTotalWaitNanos() / 1e9)
+                .description("Tiempo total de espera por stripes")
+                .baseUnit("seconds")
+                .register(registry);
+        for (int i = 0; i < stripes.length; i++) {
+            int stripe = i;
+            Gauge.builder("transfer.lock.queue", this, manager -> manager.getQueueLength(stripe))
+                    .description("Hilos esperando por el stripe")
+                    .tag("stripe", String.valueOf(stripe))
+                    .register(registry);
+        }
+    }
+
+    private <T> T callLocked(int[] indexes, Supplier<T> action) {
+        if (!enabled) return action.get();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                acquire(index);
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private void acquire(int index) {
+        ReentrantLock lock = stripes[index];
+        acquisitions.increment();
+        if (lock.tryLock()) return;
+
+        contended.increment();
+        long start = System.nanoTime();
+        lock.lock();
+        waitNanos[index].add(System.nanoTime() - start);
+    }
+}
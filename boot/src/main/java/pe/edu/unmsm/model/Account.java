@@ -1,20 +1,47 @@
 package pe.edu.unmsm.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.jfr.BalanceChangeEvent;
+import pe.edu.unmsm.jfr.TransferEvent;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.Locale;
 import java.util.Objects;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_person", columnList = "person"),
+        @Index(name = "idx_accounts_person_normalized", columnList = "person_normalized")
+})
 public class Account {
+    // Con IDENTITY Hibernate inserta fila a fila para conocer el id; con la secuencia pooled-lo reserva
+    // 50 ids por llamada (igual que hibernate.jdbc.batch_size) y agrupa los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @GenericGenerator(name = "accounts_seq", strategy = "sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "accounts_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
 
     private String person;
-    private BigDecimal balance;
+
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+
+    @JsonIgnore
+    @Column(name = "person_normalized")
+    private String personNormalized;
+
+    @Version
+    @JsonIgnore
+    private long version;
 
     public Account() {
     }
@@ -22,7 +49,17 @@ public class Account {
     public Account(Long id, String person, BigDecimal balance) {
         this.id = id;
         this.person = person;
-        this.balance = balance;
+        this.personNormalized = normalize(person);
+        setBalance(balance);
+    }
+
+    /**
+     * Forma usada para las búsquedas por titular: sin espacios extremos, sin tildes y en minúsculas.
+     */
+    public static String normalize(String person) {
+        if (person == null) return null;
+        String decomposed = Normalizer.normalize(person.trim(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
     }
 
     public Long getId() {
@@ -39,26 +76,59 @@ public class Account {
 
     public void setPerson(String person) {
         this.person = person;
+        this.personNormalized = normalize(person);
+    }
+
+    public String getPersonNormalized() {
+        return personNormalized;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizePerson() {
+        personNormalized = normalize(person);
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        return balance == null ? null : balance.toBigDecimal();
     }
 
     public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+        this.balance = balance == null ? null : Money.of(balance);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     public void debit(BigDecimal amount) {
-        BigDecimal newBalance = this.balance.subtract(amount);
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
+        debit(Money.of(amount));
+    }
+
+    public void debit(Money amount) {
+        BalanceChangeEvent event = new BalanceChangeEvent();
+        event.begin();
+        if (this.balance.compareTo(amount) < 0) {
+            event.finish(id, BalanceChangeEvent.DEBIT, amount, InsufficientMoneyException.class.getSimpleName());
             throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
         }
-        this.balance = newBalance;
+        this.balance.subtract(amount);
+        event.finish(id, BalanceChangeEvent.DEBIT, amount, TransferEvent.OK);
     }
 
     public void credit(BigDecimal amount) {
-        this.balance = this.balance.add(amount);
+        credit(Money.of(amount));
+    }
+
+    public void credit(Money amount) {
+        BalanceChangeEvent event = new BalanceChangeEvent();
+        event.begin();
+        this.balance.add(amount);
+        event.finish(id, BalanceChangeEvent.CREDIT, amount, TransferEvent.OK);
     }
 
     @Override
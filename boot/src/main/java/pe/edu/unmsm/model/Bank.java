@@ -1,25 +1,40 @@
 package pe.edu.unmsm.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 
+// Cada transferencia busca su banco; el contador vive en BankCounter para que sus UPDATE no invaliden la región
 @Entity
 @Table(name = "banks")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "banks")
 public class Bank {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "banks_seq")
+    @GenericGenerator(name = "banks_seq", strategy = "sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "banks_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
     private String name;
 
-    @Column(name = "total_transfers")
-    private int totalTransfers;
+    @Version
+    private long version;
+
+    // Solo para crear el contador junto con el banco; se lee y actualiza a través de BankRepo
+    @OneToOne(mappedBy = "bank", cascade = CascadeType.PERSIST, fetch = FetchType.LAZY, optional = false)
+    private BankCounter counter = new BankCounter(this);
 
     public Bank() {
     }
 
-    public Bank(Long id, String name, int totalTransfers) {
+    public Bank(Long id, String name) {
         this.id = id;
         this.name = name;
-        this.totalTransfers = totalTransfers;
     }
 
     public Long getId() {
@@ -38,11 +53,11 @@ public class Bank {
         this.name = name;
     }
 
-    public int getTotalTransfers() {
-        return totalTransfers;
+    public long getVersion() {
+        return version;
     }
 
-    public void setTotalTransfers(int totalTransfers) {
-        this.totalTransfers = totalTransfers;
+    public void setVersion(long version) {
+        this.version = version;
     }
 }
@@ -0,0 +1,46 @@
+package pe.edu.unmsm.model;
+
+import javax.persistence.*;
+
+/**
+ * Transfers counted for a bank, kept apart from {@link Bank} so the frequent increments do not evict
+ * the cached bank. It shares its bank's id and is persisted along with a new {@link Bank}.
+ */
+@Entity
+@Table(name = "bank_counters")
+public class BankCounter {
+    @Id
+    @Column(name = "bank_id")
+    private Long bankId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "bank_id")
+    private Bank bank;
+
+    @Column(name = "total_transfers")
+    private int totalTransfers;
+
+    public BankCounter() {
+    }
+
+    BankCounter(Bank bank) {
+        this.bank = bank;
+    }
+
+    public Long getBankId() {
+        return bankId;
+    }
+
+    public void setBankId(Long bankId) {
+        this.bankId = bankId;
+    }
+
+    public int getTotalTransfers() {
+        return totalTransfers;
+    }
+
+    public void setTotalTransfers(int totalTransfers) {
+        this.totalTransfers = totalTransfers;
+    }
+}
@@ -1,12 +1,60 @@
 package pe.edu.unmsm.repo;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import pe.edu.unmsm.dto.AccountDetailsDto;
 import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.Money;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface AccountRepo extends JpaRepository<Account, Long> {
+public interface AccountRepo extends JpaRepository<Account, Long>, AccountRepoCustom {
+    // Sin caché de consultas: Account no está en la caché de segundo nivel y cada débito o abono
+    // invalida lo guardado para accounts, así que un acierto ahorraría poco y casi nunca ocurriría
     @Query("SELECT A FROM Account A WHERE A.person = ?1")
     Optional<Account> findByPerson(String person);
-}
\ No newline at end of file
+
+    List<Account> findByPersonNormalizedOrderByIdAsc(String personNormalized);
+
+    default List<Account> findAllByPersonIgnoreCase(String person) {
+        return findByPersonNormalizedOrderByIdAsc(Account.normalize(person));
+    }
+
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT A FROM Account A ORDER BY A.id")
+    Stream<Account> streamAll();
+
+    // Proyecciones para lecturas: sin entidad no hay hidratación, copia para dirty checking ni flush
+    @Query("SELECT A.balance FROM Account A WHERE A.id = ?1")
+    Optional<Money> findBalanceById(Long id);
+
+    @Query("SELECT new pe.edu.unmsm.dto.AccountDetailsDto(A.id, A.person, A.balance) FROM Account A WHERE A.id = ?1")
+    Optional<AccountDetailsDto> findDetailsById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT A FROM Account A WHERE A.id = ?1")
+    Optional<Account> findByIdForUpdate(Long id);
+
+    // SQL nativo: en JPQL el parámetro tomaría el tipo Money del atributo convertido. Sin native.spaces,
+    // Hibernate no sabe qué tabla cambia y vacía toda la caché de segundo nivel en cada UPDATE
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "accounts"))
+    @Query(value = "UPDATE accounts SET balance = balance - ?2, version = version + 1 WHERE id = ?1 AND balance >= ?2", nativeQuery = true)
+    int debit(Long id, BigDecimal amount);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "accounts"))
+    @Query(value = "UPDATE accounts SET balance = balance + ?2, version = version + 1 WHERE id = ?1", nativeQuery = true)
+    int credit(Long id, BigDecimal amount);
+}
@@ -0,0 +1,17 @@
+package pe.edu.unmsm.repo;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+public interface AccountRepoCustom {
+    /**
+     * Adds each delta to its account balance in one JDBC batch; fails if an account no longer exists.
+     */
+    void applyBalanceDeltas(Map<Long, BigDecimal> deltas);
+
+    /**
+     * Like {@link #applyBalanceDeltas}, but skips the accounts that do not exist and returns their ids.
+     */
+    Set<Long> applyBalanceDeltasToExisting(Map<Long, BigDecimal> deltas);
+}
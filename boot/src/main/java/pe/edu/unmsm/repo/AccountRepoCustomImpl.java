@@ -0,0 +1,41 @@
+package pe.edu.unmsm.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public class AccountRepoCustomImpl implements AccountRepoCustom {
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountRepoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applyBalanceDeltas(Map<Long, BigDecimal> deltas) {
+        if (!applyBalanceDeltasToExisting(deltas).isEmpty()) throw new NoSuchElementException("Cuenta no encontrada");
+    }
+
+    @Override
+    public Set<Long> applyBalanceDeltasToExisting(Map<Long, BigDecimal> deltas) {
+        if (deltas.isEmpty()) return Set.of();
+        List<Long> accountIds = new ArrayList<>(deltas.size());
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((accountId, delta) -> {
+            accountIds.add(accountId);
+            args.add(new Object[]{delta, accountId});
+        });
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE id = ?", args);
+        Set<Long> missing = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) missing.add(accountIds.get(i));
+        }
+        return missing;
+    }
+}
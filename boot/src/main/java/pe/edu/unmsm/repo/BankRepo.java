@@ -1,7 +1,17 @@
 package pe.edu.unmsm.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import pe.edu.unmsm.model.Bank;
 
+import java.util.Optional;
+
 public interface BankRepo extends JpaRepository<Bank, Long> {
+    @Query("SELECT C.totalTransfers FROM BankCounter C WHERE C.bankId = ?1")
+    Optional<Integer> findTotalTransfersById(Long id);
+
+    @Modifying
+    @Query("UPDATE BankCounter C SET C.totalTransfers = C.totalTransfers + ?2 WHERE C.bankId = ?1")
+    int incrementTotalTransfers(Long id, int count);
 }
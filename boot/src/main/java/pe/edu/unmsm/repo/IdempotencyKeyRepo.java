@@ -0,0 +1,30 @@
+package pe.edu.unmsm.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import pe.edu.unmsm.model.IdempotencyKey;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+
+public interface IdempotencyKeyRepo extends JpaRepository<IdempotencyKey, String> {
+    // INSERT explícito: save() haría un merge y no fallaría si la clave ya existe
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys(idempotency_key, request_hash, created_at) VALUES (?1, ?2, ?3)", nativeQuery = true)
+    void claim(String key, String requestHash, Instant createdAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey K SET K.status = ?2, K.response = ?3 WHERE K.key = ?1")
+    int complete(String key, int status, String response);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey K WHERE K.key = ?1 AND K.status IS NULL")
+    int release(String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey K WHERE K.createdAt < ?1")
+    int deleteCreatedBefore(Instant instant);
+}
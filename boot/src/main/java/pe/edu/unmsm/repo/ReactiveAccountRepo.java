@@ -0,0 +1,104 @@
+package pe.edu.unmsm.repo;
+
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pe.edu.unmsm.model.Account;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Acceso R2DBC a {@code accounts} y {@code banks} para la variante reactiva. Usa las mismas tablas que
+ * JPA, que es quien crea el esquema y carga import.sql.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountRepo {
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAccountRepo(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Account> findAll() {
+        return databaseClient.sql("SELECT id, person, balance FROM accounts ORDER BY id")
+                .map(ReactiveAccountRepo::toAccount)
+                .all();
+    }
+
+    public Mono<Account> findById(Long id) {
+        return databaseClient.sql("SELECT id, person, balance FROM accounts WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveAccountRepo::toAccount)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT COUNT(*) FROM accounts WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    public Mono<Account> insert(Account account) {
+        // Un valor de la secuencia queda fuera de los bloques pooled-lo que reserva Hibernate
+        return databaseClient.sql("SELECT NEXT VALUE FOR accounts_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("INSERT INTO accounts(id, person, person_normalized, balance, version) VALUES (:id, :person, :normalized, :balance, 0)")
+                        .bind("id", id)
+                        .bind("person", account.getPerson())
+                        .bind("normalized", account.getPersonNormalized())
+                        .bind("balance", account.getBalance())
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(new Account(id, account.getPerson(), account.getBalance())));
+    }
+
+    public Mono<Integer> update(Account account) {
+        return databaseClient.sql("UPDATE accounts SET person = :person, person_normalized = :normalized, balance = :balance, version = version + 1 WHERE id = :id")
+                .bind("id", account.getId())
+                .bind("person", account.getPerson())
+                .bind("normalized", account.getPersonNormalized())
+                .bind("balance", account.getBalance())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM accounts WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> debit(Long id, BigDecimal amount) {
+        return databaseClient.sql("UPDATE accounts SET balance = balance - :amount, version = version + 1 WHERE id = :id AND balance >= :amount")
+                .bind("id", id)
+                .bind("amount", amount)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> credit(Long id, BigDecimal amount) {
+        return databaseClient.sql("UPDATE accounts SET balance = balance + :amount, version = version + 1 WHERE id = :id")
+                .bind("id", id)
+                .bind("amount", amount)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> findTotalTransfers(Long bankId) {
+        return databaseClient.sql("SELECT total_transfers FROM bank_counters WHERE bank_id = :id")
+                .bind("id", bankId)
+                .map(row -> row.get(0, Integer.class))
+                .one();
+    }
+
+    private static Account toAccount(Row row) {
+        return new Account(row.get("id", Long.class), row.get("person", String.class), row.get("balance", BigDecimal.class));
+    }
+}
@@ -0,0 +1,49 @@
+package pe.edu.unmsm.sequencer;
+
+import pe.edu.unmsm.model.Money;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saldos y bancos conocidos por el hilo escritor del secuenciador. No es thread-safe: solo lo usa ese hilo.
+ */
+class BalanceBook {
+    private final Map<Long, Money> balances = new HashMap<>();
+    private final Set<Long> banks = new HashSet<>();
+
+    boolean containsAccount(Long accountId) {
+        return balances.containsKey(accountId);
+    }
+
+    boolean containsBank(Long bankId) {
+        return banks.contains(bankId);
+    }
+
+    void putAccount(Long accountId, BigDecimal balance) {
+        balances.put(accountId, Money.of(balance));
+    }
+
+    void putAccount(Long accountId, Money balance) {
+        balances.put(accountId, balance);
+    }
+
+    void putBank(Long bankId) {
+        banks.add(bankId);
+    }
+
+    Money balance(Long accountId) {
+        return balances.get(accountId);
+    }
+
+    void remove(Long accountId) {
+        balances.remove(accountId);
+    }
+
+    int size() {
+        return balances.size();
+    }
+}
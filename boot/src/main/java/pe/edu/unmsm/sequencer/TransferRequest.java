@@ -0,0 +1,18 @@
+package pe.edu.unmsm.sequencer;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Una transferencia en cola, o una invalidación del saldo de {@code sourceAccountId} cuando {@code future} es nulo.
+ */
+record TransferRequest(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount,
+                       CompletableFuture<Void> future) {
+    static TransferRequest invalidation(Long accountId) {
+        return new TransferRequest(null, accountId, null, null, null);
+    }
+
+    boolean isInvalidation() {
+        return future == null;
+    }
+}
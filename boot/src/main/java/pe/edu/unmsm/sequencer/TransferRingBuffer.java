@@ -0,0 +1,77 @@
+package pe.edu.unmsm.sequencer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Each slot carries a sequence
+ * number: producers claim a position with a CAS on {@code tail} and publish the slot by advancing
+ * its sequence, the consumer frees it by moving the sequence one lap ahead.
+ */
+class TransferRingBuffer {
+    private final TransferRequest[] buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final int mask;
+    private volatile long head;
+
+    TransferRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("La capacidad debe ser potencia de 2");
+        this.buffer = new TransferRequest[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    boolean offer(TransferRequest request) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = request;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Only called from the consumer thread.
+     */
+    int drainTo(List<TransferRequest> requests, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) break;
+            requests.add(buffer[index]);
+            buffer[index] = null;
+            sequences.lazySet(index, position + buffer.length);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+}
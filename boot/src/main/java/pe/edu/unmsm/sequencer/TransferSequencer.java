@@ -0,0 +1,328 @@
+package pe.edu.unmsm.sequencer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.config.CacheConfig;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.journal.SnapshotService;
+import pe.edu.unmsm.journal.TransferJournal;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.Bank;
+import pe.edu.unmsm.model.Money;
+import pe.edu.unmsm.repo.AccountRepo;
+import pe.edu.unmsm.repo.BankRepo;
+import pe.edu.unmsm.service.TransferCounter;
+import pe.edu.unmsm.service.TransferMode;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transfers for {@link TransferMode#SEQUENCED}. Request threads only enqueue; a single writer thread
+ * applies the transfers in order to a {@link BalanceBook} and persists the net change of each batch
+ * in one transaction (group commit). The future of a transfer completes once its batch is committed,
+ * so no account lock is ever taken. The writer only runs in sequenced mode, and it has to be the only
+ * thing changing balances: other writes must go through {@link #invalidate}.
+ */
+@Component
+public class TransferSequencer implements SmartLifecycle, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(TransferSequencer.class);
+
+    private final AccountRepo accountRepo;
+    private final BankRepo bankRepo;
+    private final TransferCounter transferCounter;
+    private final TransferJournal journal;
+    private final SnapshotService snapshots;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferRingBuffer ringBuffer;
+    private final int batchSize;
+    private final long offerTimeoutNanos;
+    private final TransferMode mode;
+    private final BalanceBook book = new BalanceBook();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder transfers = new LongAdder();
+
+    private volatile Thread writer;
+    private volatile boolean running;
+    private volatile boolean idle;
+
+    public TransferSequencer(AccountRepo accountRepo, BankRepo bankRepo, TransferCounter transferCounter,
+                             TransferJournal journal, SnapshotService snapshots, CacheManager cacheManager, PlatformTransactionManager transactionManager,
+                             @Value("${app.transfer.sequencer.capacity:65536}") int capacity,
+                             @Value("${app.transfer.sequencer.batch-size:1000}") int batchSize,
+                             @Value("${app.transfer.sequencer.offer-timeout-ms:1000}") long offerTimeoutMs,
+                             @Value("${app.transfer.mode:direct}") TransferMode mode) {
+        this.accountRepo = accountRepo;
+        this.bankRepo = bankRepo;
+        this.transferCounter = transferCounter;
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ringBuffer = new TransferRingBuffer(capacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.mode = mode;
+    }
+
+    public CompletableFuture<Void> submit(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new RejectedExecutionException("El secuenciador de transferencias no está activo"));
+        } else if (!enqueue(new TransferRequest(bankId, sourceAccountId, targetAccountId, amount, future))) {
+            future.completeExceptionally(new RejectedExecutionException("Cola de transferencias llena"));
+        }
+        return future;
+    }
+
+    /**
+     * Discards the cached balance of an account changed outside the sequencer; inside a transaction
+     * this happens after commit.
+     */
+    public void invalidate(Long accountId) {
+        if (!running || accountId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(TransferRequest.invalidation(accountId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(TransferRequest.invalidation(accountId));
+            }
+        });
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return mode == TransferMode.SEQUENCED;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        writer = new Thread(this::run, "transfer-sequencer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectLate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transfer.sequencer.queue", ringBuffer, TransferRingBuffer::size)
+                .description("Transferencias esperando al hilo escritor")
+                .register(registry);
+        FunctionCounter.builder("transfer.sequencer.batches", batches, LongAdder::sum)
+                .description("Lotes confirmados por el secuenciador")
+                .register(registry);
+        FunctionCounter.builder("transfer.sequencer.transfers", transfers, LongAdder::sum)
+                .description("Transferencias confirmadas por el secuenciador")
+                .register(registry);
+    }
+
+    private boolean enqueue(TransferRequest request) {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (!ringBuffer.offer(request)) {
+            if (System.nanoTime() - deadline > 0) return false;
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+        if (idle) LockSupport.unpark(writer);
+        // Quien vio running antes de que stop() terminara pudo dejar su solicitud en la cola después del
+        // último drainTo; sin el escritor nadie completaría el future
+        if (!running) rejectLate();
+        return true;
+    }
+
+    /**
+     * Rejects whatever is left in the ring buffer once the writer is gone. Synchronized with
+     * {@link #stop()}, so it runs after the writer has been joined and never next to another consumer.
+     */
+    private synchronized void rejectLate() {
+        if (running) return;
+        List<TransferRequest> late = new ArrayList<>();
+        ringBuffer.drainTo(late, ringBuffer.capacity());
+        late.forEach(request -> {
+            if (!request.isInvalidation()) request.future().completeExceptionally(
+                    new RejectedExecutionException("El secuenciador de transferencias no está activo"));
+        });
+    }
+
+    private void run() {
+        List<TransferRequest> requests = new ArrayList<>(batchSize);
+        while (running || !ringBuffer.isEmpty()) {
+            if (ringBuffer.drainTo(requests, batchSize) == 0) {
+                idle = true;
+                if (ringBuffer.isEmpty() && running) LockSupport.parkNanos(100_000);
+                idle = false;
+                continue;
+            }
+            try {
+                process(requests);
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el secuenciador de transferencias", e);
+                requests.forEach(request -> {
+                    if (!request.isInvalidation()) request.future().completeExceptionally(e);
+                });
+            }
+            requests.clear();
+        }
+    }
+
+    private void process(List<TransferRequest> requests) {
+        int start = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            if (!requests.get(i).isInvalidation()) continue;
+            settle(requests.subList(start, i));
+            book.remove(requests.get(i).sourceAccountId());
+            snapshots.forget(requests.get(i).sourceAccountId());
+            start = i + 1;
+        }
+        settle(requests.subList(start, requests.size()));
+    }
+
+    private void settle(List<TransferRequest> requests) {
+        if (requests.isEmpty()) return;
+        load(requests);
+
+        List<TransferRequest> accepted = new ArrayList<>();
+        Map<Long, Money> deltas = new HashMap<>();
+        Map<Long, Integer> transfersByBank = new HashMap<>();
+        for (TransferRequest request : requests) {
+            try {
+                apply(request, deltas);
+                transfersByBank.merge(request.bankId(), 1, Integer::sum);
+                accepted.add(request);
+            } catch (RuntimeException e) {
+                request.future().completeExceptionally(e);
+            }
+        }
+        commit(accepted, deltas, transfersByBank);
+    }
+
+    private void load(List<TransferRequest> requests) {
+        Set<Long> accountIds = new HashSet<>();
+        Set<Long> bankIds = new HashSet<>();
+        for (TransferRequest request : requests) {
+            if (request.bankId() != null && !book.containsBank(request.bankId())) bankIds.add(request.bankId());
+            if (request.sourceAccountId() != null && !book.containsAccount(request.sourceAccountId())) accountIds.add(request.sourceAccountId());
+            if (request.targetAccountId() != null && !book.containsAccount(request.targetAccountId())) accountIds.add(request.targetAccountId());
+        }
+        // Tras un arranque con snapshot los saldos ya están en memoria; solo se consulta lo que falte
+        accountIds.removeIf(id -> {
+            Money balance = snapshots.takeBalance(id);
+            if (balance != null) book.putAccount(id, balance);
+            return balance != null;
+        });
+        bankIds.removeIf(id -> {
+            if (snapshots.containsBank(id)) book.putBank(id);
+            return book.containsBank(id);
+        });
+        if (!accountIds.isEmpty()) {
+            for (Account account : accountRepo.findAllById(accountIds)) book.putAccount(account.getId(), account.getBalance());
+        }
+        if (!bankIds.isEmpty()) {
+            for (Bank bank : bankRepo.findAllById(bankIds)) book.putBank(bank.getId());
+        }
+    }
+
+    private void apply(TransferRequest request, Map<Long, Money> deltas) {
+        if (!book.containsBank(request.bankId())) throw new NoSuchElementException("Banco no encontrado");
+        Money source = book.balance(request.sourceAccountId());
+        Money target = book.balance(request.targetAccountId());
+        if (source == null || target == null) throw new NoSuchElementException("Cuenta no encontrada");
+        if (request.amount() == null || request.amount().signum() <= 0) throw new IllegalArgumentException("Monto inválido");
+
+        Money amount = Money.of(request.amount());
+        if (source.compareTo(amount) < 0) throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
+        // Primero el débito; si el crédito desborda, se devuelve para no dejar el libro a medias
+        source.subtract(amount);
+        try {
+            target.add(amount);
+        } catch (ArithmeticException e) {
+            source.add(amount);
+            throw e;
+        }
+        deltas.computeIfAbsent(request.sourceAccountId(), id -> Money.ofMinor(0, 0)).subtract(amount);
+        deltas.computeIfAbsent(request.targetAccountId(), id -> Money.ofMinor(0, 0)).add(amount);
+    }
+
+    private void commit(List<TransferRequest> accepted, Map<Long, Money> deltas, Map<Long, Integer> transfersByBank) {
+        if (accepted.isEmpty()) return;
+        Map<Long, BigDecimal> changes = new HashMap<>();
+        deltas.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) changes.put(accountId, delta.toBigDecimal());
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accountRepo.applyBalanceDeltas(changes);
+                transfersByBank.forEach(transferCounter::increment);
+                // Se escribe en el diario antes del commit; si falla, el lote se revierte
+                for (TransferRequest request : accepted) {
+                    journal.record(request.bankId(), request.sourceAccountId(), request.targetAccountId(), request.amount());
+                }
+            });
+        } catch (RuntimeException e) {
+            deltas.keySet().forEach(book::remove);
+            accepted.forEach(request -> request.future().completeExceptionally(e));
+            return;
+        }
+        batches.increment();
+        transfers.add(accepted.size());
+        accepted.forEach(request -> request.future().complete(null));
+
+        // El lote ya está confirmado: un fallo aquí no puede llegar a quien pidió la transferencia
+        try {
+            evict(deltas.keySet());
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron invalidar las cachés de {} cuentas", deltas.size(), e);
+        }
+    }
+
+    private void evict(Collection<Long> accountIds) {
+        Cache accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        Cache balances = cacheManager.getCache(CacheConfig.BALANCES);
+        Cache details = cacheManager.getCache(CacheConfig.DETAILS);
+        for (Long id : accountIds) {
+            if (accounts != null) accounts.evict(id);
+            if (balances != null) balances.evict(id);
+            if (details != null) details.evict(id);
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package pe.edu.unmsm.service;
 
+import pe.edu.unmsm.dto.AccountBulkResultDto;
+import pe.edu.unmsm.dto.AccountDetailsDto;
+import pe.edu.unmsm.dto.AccountPageDto;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResultDto;
 import pe.edu.unmsm.model.Account;
 
 import java.math.BigDecimal;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AccountService {
     List<Account> findAll();
 
+    AccountPageDto findPage(Long after, int limit);
+
+    void streamAll(Consumer<Account> consumer);
+
     Account findById(Long id);
 
+    AccountDetailsDto findDetails(Long id);
+
     Account save(Account account);
 
+    AccountBulkResultDto saveAll(Iterator<Account> accounts);
+
     void deleteById(Long id);
 
     int getTotalTransfers(Long bankId);
@@ -19,4 +34,6 @@ public interface AccountService {
     BigDecimal getBalance(Long accountId);
 
     void transfer(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount);
+
+    List<TransferResultDto> transferAll(Iterator<TransactionDto> transactions);
 }
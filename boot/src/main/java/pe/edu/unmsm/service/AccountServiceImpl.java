@@ -1,23 +1,81 @@
 package pe.edu.unmsm.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.config.CacheConfig;
+import pe.edu.unmsm.dto.AccountBulkResultDto;
+import pe.edu.unmsm.dto.AccountDetailsDto;
+import pe.edu.unmsm.dto.AccountPageDto;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResultDto;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.jfr.TransferEvent;
+import pe.edu.unmsm.journal.TransferJournal;
+import pe.edu.unmsm.lock.StripedLockManager;
 import pe.edu.unmsm.model.Account;
 import pe.edu.unmsm.model.Bank;
 import pe.edu.unmsm.repo.AccountRepo;
 import pe.edu.unmsm.repo.BankRepo;
+import pe.edu.unmsm.sequencer.TransferSequencer;
 
+import javax.persistence.EntityManager;
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AccountServiceImpl implements AccountService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final AccountRepo accountRepo;
     private final BankRepo bankRepo;
+    private final StripedLockManager lockManager;
+    private final TransferCounter transferCounter;
+    private final TransferSequencer sequencer;
+    private final TransferJournal journal;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int bulkChunkSize;
+    private final TransferMode mode;
+    private final String modeName;
 
-    public AccountServiceImpl(AccountRepo accountRepo, BankRepo bankRepo) {
+    public AccountServiceImpl(AccountRepo accountRepo, BankRepo bankRepo, StripedLockManager lockManager,
+                              TransferCounter transferCounter, TransferSequencer sequencer, TransferJournal journal,
+                              CacheManager cacheManager, EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.transfer.batch.chunk-size:500}") int chunkSize,
+                              @Value("${app.account.bulk.chunk-size:5000}") int bulkChunkSize,
+                              @Value("${app.transfer.mode:direct}") TransferMode mode) {
         this.accountRepo = accountRepo;
         this.bankRepo = bankRepo;
+        this.lockManager = lockManager;
+        this.transferCounter = transferCounter;
+        this.sequencer = sequencer;
+        this.journal = journal;
+        this.cacheManager = cacheManager;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.bulkChunkSize = bulkChunkSize;
+        this.mode = mode;
+        this.modeName = mode.name().toLowerCase(Locale.ROOT);
     }
 
     @Override
@@ -28,50 +86,326 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     @Transactional(readOnly = true)
+    public AccountPageDto findPage(Long after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Account> accounts = accountRepo.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, PageRequest.ofSize(size + 1));
+        if (accounts.size() <= size) return new AccountPageDto(accounts, null);
+
+        List<Account> page = accounts.subList(0, size);
+        return new AccountPageDto(new ArrayList<>(page), page.get(size - 1).getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Account> consumer) {
+        try (Stream<Account> accounts = accountRepo.streamAll()) {
+            accounts.forEach(account -> {
+                consumer.accept(account);
+                entityManager.detach(account);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS, key = "#id", sync = true)
     public Account findById(Long id) {
         return accountRepo.findById(id).orElseThrow();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.DETAILS, key = "#id", sync = true)
+    public AccountDetailsDto findDetails(Long id) {
+        return accountRepo.findDetailsById(id).orElseThrow();
+    }
+
     @Override
     @Transactional
+    @Caching(put = @CachePut(cacheNames = CacheConfig.ACCOUNTS, key = "#result.id"),
+            evict = {
+                    @CacheEvict(cacheNames = CacheConfig.BALANCES, key = "#result.id"),
+                    @CacheEvict(cacheNames = CacheConfig.DETAILS, key = "#result.id")
+            })
     public Account save(Account account) {
-        return accountRepo.save(account);
+        // La versión no viaja en el JSON: una cuenta existente se modifica sobre la entidad cargada, que
+        // conserva su versión, en vez de fusionar la recibida con versión 0
+        Account saved = account.getId() == null ? null : accountRepo.findById(account.getId()).orElse(null);
+        if (saved == null) {
+            saved = accountRepo.save(account);
+        } else {
+            saved.setPerson(account.getPerson());
+            saved.setBalance(account.getBalance());
+        }
+        sequencer.invalidate(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Creates new accounts (any id sent is ignored) in one transaction per chunk. The ids come from the
+     * pooled-lo sequence, so Hibernate groups the INSERTs in JDBC batches of
+     * {@code hibernate.jdbc.batch_size}; the persistence context is cleared after each chunk. If an
+     * account cannot be read or a chunk fails, the earlier chunks stay committed and the result tells
+     * how many were created and where to resume.
+     */
+    @Override
+    public AccountBulkResultDto saveAll(Iterator<Account> accounts) {
+        int created = 0;
+        List<Account> chunk = new ArrayList<>(bulkChunkSize);
+        try {
+            while (accounts.hasNext()) {
+                chunk.add(accounts.next());
+                if (chunk.size() == bulkChunkSize) {
+                    created += insert(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) created += insert(chunk);
+        } catch (RuntimeException e) {
+            return AccountBulkResultDto.error(created, e.getMessage());
+        }
+        return AccountBulkResultDto.ok(created);
+    }
+
+    private int insert(List<Account> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Account account : chunk) {
+                account.setId(null);
+                entityManager.persist(account);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        return chunk.size();
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.BALANCES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DETAILS, key = "#id")
+    })
     public void deleteById(Long id) {
         accountRepo.deleteById(id);
+        sequencer.invalidate(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public int getTotalTransfers(Long bankId) {
-        Bank bank = bankRepo.findById(bankId).orElseThrow();
-        return bank.getTotalTransfers();
+        int totalTransfers = bankRepo.findTotalTransfersById(bankId).orElseThrow();
+        return Math.toIntExact(totalTransfers + transferCounter.pending(bankId));
     }
 
+    /**
+     * Con {@code sync} la lectura se guarda dentro del cómputo de Caffeine: un desalojo posterior al
+     * commit de una transferencia espera a la carga en curso y la descarta, en vez de que esta deje
+     * en la caché el saldo anterior.
+     */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BALANCES, key = "#accountId", sync = true)
     public BigDecimal getBalance(Long accountId) {
-        Account account = accountRepo.findById(accountId).orElseThrow();
-        return account.getBalance();
+        return accountRepo.findBalanceById(accountId).orElseThrow().toBigDecimal();
     }
 
     @Override
-    @Transactional
     public void transfer(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        try {
+            // Un monto negativo pasaría el "balance >= ?" del débito y movería el dinero al revés
+            if (amount == null || amount.signum() <= 0) throw new IllegalArgumentException("Monto inválido");
+            if (mode == TransferMode.SEQUENCED) {
+                await(sequencer.submit(bankId, sourceAccountId, targetAccountId, amount));
+                return;
+            }
+            long requested = System.nanoTime();
+            List<Long> accountIds = Arrays.asList(sourceAccountId, targetAccountId);
+            lockManager.runLocked(sourceAccountId, targetAccountId, () -> {
+                event.lockAcquired(requested);
+                // Se desaloja con las cuentas aún bloqueadas, antes de modificarlas y después del commit;
+                // fuera del candado otra transferencia ya podría haberlas cambiado
+                evict(accountIds);
+                transactionTemplate.executeWithoutResult(status ->
+                        doTransfer(bankId, sourceAccountId, targetAccountId, amount, event));
+                evict(accountIds);
+                event.committed();
+            });
+        } catch (RuntimeException e) {
+            event.failed(e);
+            throw e;
+        } finally {
+            event.finish(bankId, sourceAccountId, targetAccountId, amount, modeName);
+        }
+    }
+
+    private void doTransfer(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount, TransferEvent event) {
+        // findById pasa por la caché de segundo nivel; existsById siempre ejecuta un SELECT count(*)
+        if (bankRepo.findById(bankId).isEmpty()) throw new NoSuchElementException("Banco no encontrado");
+        event.bankChecked();
+        switch (mode) {
+            case DIRECT -> transferDirect(sourceAccountId, targetAccountId, amount);
+            case OPTIMISTIC -> transferOptimistic(sourceAccountId, targetAccountId, amount);
+            case PESSIMISTIC -> transferPessimistic(sourceAccountId, targetAccountId, amount);
+        }
+        // Un conflicto de versión debe saltar aquí y no en el commit, cuando el diario ya está escrito
+        if (mode != TransferMode.DIRECT) accountRepo.flush();
+        event.balancesMoved();
+        transferCounter.increment(bankId, 1);
+        journal.record(bankId, sourceAccountId, targetAccountId, amount);
+        event.bookkept();
+    }
+
+    private void transferDirect(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        if (accountRepo.debit(sourceAccountId, amount) == 0) {
+            if (!accountRepo.existsById(sourceAccountId)) throw new NoSuchElementException("Cuenta no encontrada");
+            throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
+        }
+        if (accountRepo.credit(targetAccountId, amount) == 0) throw new NoSuchElementException("Cuenta no encontrada");
+    }
+
+    private void transferOptimistic(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
         Account sourceAccount = accountRepo.findById(sourceAccountId).orElseThrow();
+        Account targetAccount = accountRepo.findById(targetAccountId).orElseThrow();
         sourceAccount.debit(amount);
-        accountRepo.save(sourceAccount);
+        targetAccount.credit(amount);
+    }
 
-        Account targetAccount = accountRepo.findById(targetAccountId).orElseThrow();
+    private void transferPessimistic(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        boolean sourceFirst = sourceAccountId.compareTo(targetAccountId) <= 0;
+        Account first = accountRepo.findByIdForUpdate(sourceFirst ? sourceAccountId : targetAccountId).orElseThrow();
+        Account second = sourceAccountId.equals(targetAccountId)
+                ? first
+                : accountRepo.findByIdForUpdate(sourceFirst ? targetAccountId : sourceAccountId).orElseThrow();
+
+        Account sourceAccount = sourceFirst ? first : second;
+        Account targetAccount = sourceFirst ? second : first;
+        sourceAccount.debit(amount);
         targetAccount.credit(amount);
-        accountRepo.save(targetAccount);
+    }
+
+    private static void await(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TransferResultDto> transferAll(Iterator<TransactionDto> transactions) {
+        List<TransferResultDto> results = new ArrayList<>();
+        List<TransactionDto> chunk = new ArrayList<>(chunkSize);
+        while (true) {
+            TransactionDto dto;
+            try {
+                if (!transactions.hasNext()) break;
+                dto = transactions.next();
+            } catch (RuntimeException e) {
+                // Una línea ilegible corta el lote: lo leído antes se transfiere y lo que sigue no se lee
+                if (!chunk.isEmpty()) results.addAll(transferChunk(chunk, results.size()));
+                results.add(TransferResultDto.invalid(results.size(), e.getMessage()));
+                return results;
+            }
+            chunk.add(dto);
+            if (chunk.size() == chunkSize) {
+                results.addAll(transferChunk(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) results.addAll(transferChunk(chunk, results.size()));
+        return results;
+    }
+
+    private List<TransferResultDto> transferChunk(List<TransactionDto> chunk, int offset) {
+        return mode == TransferMode.SEQUENCED ? sequence(chunk, offset) : settle(chunk, offset);
+    }
+
+    private List<TransferResultDto> sequence(List<TransactionDto> chunk, int offset) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(chunk.size());
+        for (TransactionDto dto : chunk) {
+            futures.add(sequencer.submit(dto.getBankId(), dto.getSourceAccountId(), dto.getTargetAccountId(), dto.getAmount()));
+        }
+        List<TransferResultDto> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                await(futures.get(i));
+                results.add(TransferResultDto.ok(offset + i));
+            } catch (RuntimeException e) {
+                results.add(TransferResultDto.error(offset + i, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private List<TransferResultDto> settle(List<TransactionDto> chunk, int offset) {
+        Set<Long> accountIds = new HashSet<>();
+        for (TransactionDto dto : chunk) {
+            if (dto.getSourceAccountId() != null) accountIds.add(dto.getSourceAccountId());
+            if (dto.getTargetAccountId() != null) accountIds.add(dto.getTargetAccountId());
+        }
+        try {
+            return lockManager.callLocked(accountIds, () ->
+                    transactionTemplate.execute(status -> settleChunk(chunk, accountIds, offset)));
+        } catch (RuntimeException e) {
+            List<TransferResultDto> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(TransferResultDto.error(offset + i, "Lote revertido: " + e.getMessage()));
+            }
+            return results;
+        }
+    }
+
+    private List<TransferResultDto> settleChunk(List<TransactionDto> chunk, Set<Long> accountIds, int offset) {
+        Set<Long> bankIds = new HashSet<>();
+        for (TransactionDto dto : chunk) {
+            if (dto.getBankId() != null) bankIds.add(dto.getBankId());
+        }
+        Map<Long, Account> accounts = accountRepo.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        Map<Long, Bank> banks = bankRepo.findAllById(bankIds).stream()
+                .collect(Collectors.toMap(Bank::getId, Function.identity()));
+
+        List<TransferResultDto> results = new ArrayList<>(chunk.size());
+        Map<Long, Integer> transfersByBank = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            TransactionDto dto = chunk.get(i);
+            try {
+                Bank bank = banks.get(dto.getBankId());
+                Account sourceAccount = accounts.get(dto.getSourceAccountId());
+                Account targetAccount = accounts.get(dto.getTargetAccountId());
+                if (bank == null) throw new NoSuchElementException("Banco no encontrado");
+                if (sourceAccount == null || targetAccount == null) throw new NoSuchElementException("Cuenta no encontrada");
+                if (dto.getAmount() == null || dto.getAmount().signum() <= 0) throw new IllegalArgumentException("Monto inválido");
+
+                sourceAccount.debit(dto.getAmount());
+                targetAccount.credit(dto.getAmount());
+                transfersByBank.merge(bank.getId(), 1, Integer::sum);
+                journal.record(bank.getId(), sourceAccount.getId(), targetAccount.getId(), dto.getAmount());
+                results.add(TransferResultDto.ok(offset + i));
+            } catch (InsufficientMoneyException | NoSuchElementException | IllegalArgumentException e) {
+                results.add(TransferResultDto.error(offset + i, e.getMessage()));
+            }
+        }
+
+        transfersByBank.forEach(transferCounter::increment);
+        accountRepo.flush();
+        evict(accountIds);
+        return results;
+    }
 
-        Bank bank = bankRepo.findById(1L).orElseThrow();
-        int totalTransfers = bank.getTotalTransfers();
-        bank.setTotalTransfers(++totalTransfers);
-        bankRepo.save(bank);
+    private void evict(Collection<Long> accountIds) {
+        Cache accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        Cache balances = cacheManager.getCache(CacheConfig.BALANCES);
+        Cache details = cacheManager.getCache(CacheConfig.DETAILS);
+        for (Long id : accountIds) {
+            if (id == null) continue;
+            if (accounts != null) accounts.evict(id);
+            if (balances != null) balances.evict(id);
+            if (details != null) details.evict(id);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package pe.edu.unmsm.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import pe.edu.unmsm.dto.AsyncTransferDto;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs transfers submitted without waiting for the result on a fixed pool of
+ * {@code app.transfer.async.threads} threads behind a queue of {@code app.transfer.async.queue-capacity}.
+ * The HTTP thread only validates and enqueues, so a burst waits in the queue instead of holding
+ * connections and DB pool slots; when the queue is full {@link #submit} fails with
+ * {@link RejectedExecutionException}. Statuses stay in memory for {@code app.transfer.async.spec}.
+ */
+@Service
+public class AsyncTransferService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(AsyncTransferService.class);
+
+    private final AccountService accountService;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, AsyncTransferDto> statuses;
+    private final long shutdownTimeoutMillis;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public AsyncTransferService(AccountService accountService,
+                                @Value("${app.transfer.async.threads:4}") int threads,
+                                @Value("${app.transfer.async.queue-capacity:10000}") int queueCapacity,
+                                @Value("${app.transfer.async.spec:maximumSize=1000000,expireAfterWrite=1h}") String spec,
+                                @Value("${app.transfer.async.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis) {
+        this.accountService = accountService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("transfer-async-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.statuses = Caffeine.from(spec).build();
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * Checks what can be checked without the database and enqueues the transfer. Unknown banks or
+     * accounts and insufficient funds show up later as an ERROR status.
+     */
+    public AsyncTransferDto submit(TransactionDto dto) {
+        if (dto.getBankId() == null || dto.getSourceAccountId() == null || dto.getTargetAccountId() == null) {
+            throw new IllegalArgumentException("Faltan el banco o las cuentas");
+        }
+        if (dto.getAmount() == null || dto.getAmount().signum() <= 0) throw new IllegalArgumentException("Monto inválido");
+
+        String id = UUID.randomUUID().toString();
+        AsyncTransferDto pending = AsyncTransferDto.pending(id);
+        statuses.put(id, pending);
+        try {
+            executor.execute(new Transfer(id, dto));
+        } catch (RejectedExecutionException e) {
+            statuses.invalidate(id);
+            rejected.increment();
+            throw e;
+        }
+        submitted.increment();
+        return pending;
+    }
+
+    public AsyncTransferDto status(String id) {
+        AsyncTransferDto status = statuses.getIfPresent(id);
+        if (status == null) throw new NoSuchElementException("Transferencia no encontrada");
+        return status;
+    }
+
+    private void run(String id, TransactionDto dto) {
+        statuses.put(id, AsyncTransferDto.running(id));
+        try {
+            accountService.transfer(dto.getBankId(), dto.getSourceAccountId(), dto.getTargetAccountId(), dto.getAmount());
+            statuses.put(id, AsyncTransferDto.ok(id));
+        } catch (InsufficientMoneyException | NoSuchElementException | IllegalArgumentException e) {
+            failed.increment();
+            statuses.put(id, AsyncTransferDto.error(id, e.getMessage()));
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Falló la transferencia asíncrona {}", id, e);
+            statuses.put(id, AsyncTransferDto.error(id, "No se pudo realizar la transferencia"));
+        }
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    // Se destruye antes que AccountService y la base de datos: termina lo que ya estaba en cola
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) return;
+        // Las que no llegaron a empezar quedan en ERROR: no se transfirió nada y el cliente puede reenviarlas
+        List<Runnable> dropped = executor.shutdownNow();
+        for (Runnable runnable : dropped) {
+            if (runnable instanceof Transfer transfer) {
+                failed.increment();
+                statuses.put(transfer.id(), AsyncTransferDto.error(transfer.id(), "Transferencia cancelada por el apagado del servidor"));
+            }
+        }
+        log.warn("Quedaron {} transferencias asíncronas sin procesar", dropped.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transfer.async.requests", submitted, LongAdder::sum)
+                .description("Transferencias asíncronas recibidas")
+                .tag("result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("transfer.async.requests", rejected, LongAdder::sum)
+                .description("Transferencias asíncronas recibidas")
+                .tag("result", "rejected")
+                .register(registry);
+        FunctionCounter.builder("transfer.async.failed", failed, LongAdder::sum)
+                .description("Transferencias asíncronas que terminaron con error")
+                .register(registry);
+        Gauge.builder("transfer.async.queue.size", this, AsyncTransferService::queued)
+                .description("Transferencias asíncronas esperando un hilo")
+                .register(registry);
+        Gauge.builder("transfer.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Transferencias asíncronas en proceso")
+                .register(registry);
+    }
+
+    // Guarda el id para que shutdown pueda marcar las que quedaron en la cola
+    private final class Transfer implements Runnable {
+        private final String id;
+        private final TransactionDto dto;
+
+        private Transfer(String id, TransactionDto dto) {
+            this.id = id;
+            this.dto = dto;
+        }
+
+        String id() {
+            return id;
+        }
+
+        @Override
+        public void run() {
+            AsyncTransferService.this.run(id, dto);
+        }
+    }
+}
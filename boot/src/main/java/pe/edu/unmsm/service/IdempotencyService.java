@@ -0,0 +1,262 @@
+package pe.edu.unmsm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.model.IdempotencyKey;
+import pe.edu.unmsm.repo.IdempotencyKeyRepo;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Answers retries of a transfer with the same {@code Idempotency-Key} with the first response instead
+ * of transferring again. Recent responses are kept in a bounded in-memory map; the key is claimed in
+ * {@code idempotency_keys} before transferring, so the primary key stops a second debit even across
+ * instances or after the entry left memory. While the first request is still running a retry gets 409.
+ * The key is only released when the transfer is known to have rolled back; any other failure is
+ * stored as the response, since the transfer may already be committed.
+ */
+@Service
+public class IdempotencyService implements MeterBinder {
+    public static final int MAX_KEY_LENGTH = 100;
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyKeyRepo idempotencyKeyRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, StoredResponse> responses;
+    // Respuestas que aún no se pudieron guardar en idempotency_keys; no deben salir de memoria
+    private final Map<String, StoredResponse> unsaved = new ConcurrentHashMap<>();
+    private final long retentionMillis;
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public IdempotencyService(IdempotencyKeyRepo idempotencyKeyRepo, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.spec:maximumSize=100000,expireAfterWrite=24h}") String spec,
+                              @Value("${app.idempotency.retention-ms:86400000}") long retentionMillis) {
+        this.idempotencyKeyRepo = idempotencyKeyRepo;
+        this.objectMapper = objectMapper;
+        // Las claves se confirman aparte de la transacción que pudiera haber en curso
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.responses = Caffeine.from(spec).build();
+        this.retentionMillis = retentionMillis;
+    }
+
+    public ResponseEntity<Object> execute(String key, TransactionDto dto, Supplier<? extends ResponseEntity<?>> transfer) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return error(HttpStatus.BAD_REQUEST, "Idempotency-Key inválida");
+        }
+        String requestHash = fingerprint(dto);
+        StoredResponse stored = responses.getIfPresent(key);
+        if (stored == null) stored = unsaved.get(key);
+        if (stored != null) {
+            memoryHits.increment();
+            return replay(stored, requestHash);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepo.claim(key, requestHash, Instant.now()));
+        } catch (DataIntegrityViolationException e) {
+            return existing(key, requestHash);
+        }
+        misses.increment();
+
+        ResponseEntity<Object> response;
+        try {
+            ResponseEntity<?> result = transfer.get();
+            response = new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+        } catch (RuntimeException e) {
+            if (rolledBack(e)) {
+                // No se transfirió nada: un reintento con la misma clave vuelve a intentarlo
+                try {
+                    transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepo.release(key));
+                } catch (RuntimeException releaseFailure) {
+                    e.addSuppressed(releaseFailure);
+                }
+                throw e;
+            }
+            // Pudo confirmarse antes de fallar: los reintentos reciben este error en vez de transferir otra vez
+            log.error("Transferencia con Idempotency-Key {} en estado desconocido", key, e);
+            response = error(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "No se pudo confirmar el resultado de la transferencia; revise los saldos antes de reintentar con otra Idempotency-Key");
+        }
+        stored = new StoredResponse(requestHash, response);
+        responses.put(key, stored);
+        unsaved.put(key, stored);
+        save(key, stored);
+        return response;
+    }
+
+    /**
+     * Retries saving the responses whose {@code complete} failed, so their keys do not stay claimed.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.retry-interval-ms:1000}")
+    public void saveUnsaved() {
+        unsaved.forEach(this::save);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purge() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyKeyRepo.deleteCreatedBefore(Instant.now().minusMillis(retentionMillis)));
+        if (deleted != null && deleted > 0) log.info("Se borraron {} claves de idempotencia vencidas", deleted);
+    }
+
+    public long size() {
+        return responses.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("idempotency.requests", memoryHits, LongAdder::sum)
+                .description("Peticiones con Idempotency-Key")
+                .tag("result", "memory")
+                .register(registry);
+        FunctionCounter.builder("idempotency.requests", databaseHits, LongAdder::sum)
+                .description("Peticiones con Idempotency-Key")
+                .tag("result", "database")
+                .register(registry);
+        FunctionCounter.builder("idempotency.requests", misses, LongAdder::sum)
+                .description("Peticiones con Idempotency-Key")
+                .tag("result", "new")
+                .register(registry);
+        FunctionCounter.builder("idempotency.requests", conflicts, LongAdder::sum)
+                .description("Peticiones con Idempotency-Key")
+                .tag("result", "conflict")
+                .register(registry);
+        Gauge.builder("idempotency.hit.ratio", this, IdempotencyService::hitRatio)
+                .description("Reintentos respondidos sin transferir de nuevo")
+                .register(registry);
+        Gauge.builder("idempotency.store.size", this, IdempotencyService::size)
+                .description("Respuestas guardadas en memoria")
+                .register(registry);
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.sum() + databaseHits.sum();
+        double total = hits + misses.sum();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private void save(String key, StoredResponse stored) {
+        try {
+            String body = write(stored.response().getBody());
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyKeyRepo.complete(key, stored.response().getStatusCodeValue(), body));
+            unsaved.remove(key, stored);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar la respuesta de la Idempotency-Key {}; se reintentará", key, e);
+        }
+    }
+
+    private ResponseEntity<Object> existing(String key, String requestHash) {
+        IdempotencyKey row = idempotencyKeyRepo.findById(key).orElse(null);
+        if (row == null || row.getStatus() == null) {
+            conflicts.increment();
+            return error(HttpStatus.CONFLICT, "La transferencia con esta Idempotency-Key aún está en proceso");
+        }
+        StoredResponse stored = new StoredResponse(row.getRequestHash(),
+                ResponseEntity.status(row.getStatus()).body(read(row.getResponse())));
+        responses.put(key, stored);
+        databaseHits.increment();
+        return replay(stored, requestHash);
+    }
+
+    private ResponseEntity<Object> replay(StoredResponse stored, String requestHash) {
+        if (stored.requestHash().equals(requestHash)) return stored.response();
+        conflicts.increment();
+        return error(HttpStatus.UNPROCESSABLE_ENTITY, "La Idempotency-Key ya se usó con otra transferencia");
+    }
+
+    /**
+     * Failures that leave nothing committed: invalid or rejected requests, business rules checked
+     * inside the transaction, and transactions that were rolled back.
+     */
+    private static boolean rolledBack(RuntimeException e) {
+        return e instanceof InsufficientMoneyException
+                || e instanceof NoSuchElementException
+                || e instanceof IllegalArgumentException
+                || e instanceof RejectedExecutionException
+                || e instanceof ConcurrencyFailureException
+                || e instanceof UnexpectedRollbackException;
+    }
+
+    // SHA-256 de la petición canónica: el monto sin ceros a la derecha, para que 100 y 100.00 coincidan
+    private static String fingerprint(TransactionDto dto) {
+        BigDecimal amount = dto.getAmount() == null ? null : dto.getAmount().stripTrailingZeros();
+        String request = dto.getBankId() + "|" + dto.getSourceAccountId() + "|" + dto.getTargetAccountId()
+                + "|" + (amount == null ? null : amount.toPlainString());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("date", LocalDate.now().toString());
+        response.put("status", "ERROR");
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Object> read(String body) {
+        try {
+            return objectMapper.readValue(body, new TypeReference<>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, ResponseEntity<Object> response) {
+    }
+}
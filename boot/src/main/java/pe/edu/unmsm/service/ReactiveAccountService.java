@@ -0,0 +1,23 @@
+package pe.edu.unmsm.service;
+
+import pe.edu.unmsm.model.Account;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveAccountService {
+    Flux<Account> findAll();
+
+    Mono<Account> findById(Long id);
+
+    Mono<Account> save(Account account);
+
+    Mono<Void> deleteById(Long id);
+
+    Mono<Integer> getTotalTransfers(Long bankId);
+
+    Mono<BigDecimal> getBalance(Long accountId);
+
+    Mono<Void> transfer(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount);
+}
@@ -0,0 +1,124 @@
+package pe.edu.unmsm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.journal.TransferJournal;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.repo.ReactiveAccountRepo;
+import pe.edu.unmsm.sequencer.TransferSequencer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Variante reactiva de {@link AccountServiceImpl} sobre R2DBC. Una transferencia es una sola transacción
+ * R2DBC con el débito condicionado al saldo y el abono, así que falla o se confirma completa. El diario
+ * se escribe antes del commit (y se anula si el commit falla); el contador del banco, después. En modo
+ * sequenced se delega en el secuenciador, igual que la variante bloqueante.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+    private final ReactiveAccountRepo accountRepo;
+    private final TransferCounter transferCounter;
+    private final TransferSequencer sequencer;
+    private final TransferJournal journal;
+    private final TransactionalOperator transactionalOperator;
+    private final TransferMode mode;
+
+    public ReactiveAccountServiceImpl(ReactiveAccountRepo accountRepo, TransferCounter transferCounter,
+                                      TransferSequencer sequencer, TransferJournal journal,
+                                      ReactiveTransactionManager transactionManager,
+                                      @Value("${app.transfer.mode:direct}") TransferMode mode) {
+        this.accountRepo = accountRepo;
+        this.transferCounter = transferCounter;
+        this.sequencer = sequencer;
+        this.journal = journal;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.mode = mode;
+    }
+
+    @Override
+    public Flux<Account> findAll() {
+        return accountRepo.findAll();
+    }
+
+    @Override
+    public Mono<Account> findById(Long id) {
+        return accountRepo.findById(id);
+    }
+
+    @Override
+    public Mono<Account> save(Account account) {
+        Mono<Account> saved = account.getId() == null
+                ? accountRepo.insert(account)
+                : accountRepo.update(account).flatMap(rows -> rows > 0 ? Mono.just(account) : accountRepo.insert(account));
+        return saved.as(transactionalOperator::transactional)
+                .doOnSuccess(result -> sequencer.invalidate(result.getId()));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return accountRepo.deleteById(id)
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(rows -> sequencer.invalidate(id))
+                .then();
+    }
+
+    @Override
+    public Mono<Integer> getTotalTransfers(Long bankId) {
+        return accountRepo.findTotalTransfers(bankId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Banco no encontrado")))
+                .map(total -> Math.toIntExact(total + transferCounter.pending(bankId)));
+    }
+
+    @Override
+    public Mono<BigDecimal> getBalance(Long accountId) {
+        return accountRepo.findById(accountId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Cuenta no encontrada")))
+                .map(Account::getBalance);
+    }
+
+    @Override
+    public Mono<Void> transfer(Long bankId, Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) return Mono.error(new IllegalArgumentException("Monto inválido"));
+        if (mode == TransferMode.SEQUENCED) {
+            return Mono.fromFuture(() -> sequencer.submit(bankId, sourceAccountId, targetAccountId, amount));
+        }
+        if (sourceAccountId == null || targetAccountId == null) return Mono.error(new NoSuchElementException("Cuenta no encontrada"));
+        Mono<Void> debit = accountRepo.debit(sourceAccountId, amount)
+                .flatMap(rows -> rows > 0 ? Mono.empty() : debitFailed(sourceAccountId));
+        Mono<Void> credit = accountRepo.credit(targetAccountId, amount)
+                .flatMap(rows -> rows > 0 ? Mono.empty() : Mono.error(new NoSuchElementException("Cuenta no encontrada")));
+        // Cada UPDATE bloquea su fila hasta el commit; se hacen en orden ascendente de id, como el
+        // StripedLockManager de la variante bloqueante, para que dos transferencias opuestas no se crucen.
+        // Si el débito va segundo y falla, el rollback deshace el abono
+        Mono<Void> updates = sourceAccountId.compareTo(targetAccountId) <= 0 ? debit.then(credit) : credit.then(debit);
+        AtomicBoolean journaled = new AtomicBoolean();
+        return accountRepo.findTotalTransfers(bankId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Banco no encontrado")))
+                .then(updates)
+                .then(Mono.fromRunnable(() -> {
+                    journal.record(bankId, sourceAccountId, targetAccountId, amount);
+                    journaled.set(true);
+                }))
+                .as(transactionalOperator::transactional)
+                .doOnError(e -> {
+                    if (journaled.get()) journal.cancel(bankId, sourceAccountId, targetAccountId, amount);
+                })
+                .then(Mono.fromRunnable(() -> transferCounter.increment(bankId, 1)));
+    }
+
+    private Mono<Void> debitFailed(Long sourceAccountId) {
+        return accountRepo.existsById(sourceAccountId).flatMap(exists -> Mono.error(exists
+                ? new InsufficientMoneyException("Dinero insuficiente en la cuenta")
+                : new NoSuchElementException("Cuenta no encontrada")));
+    }
+}
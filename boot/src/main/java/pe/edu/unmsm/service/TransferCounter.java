@@ -0,0 +1,98 @@
+package pe.edu.unmsm.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.jfr.BankCounterEvent;
+import pe.edu.unmsm.jfr.TransferEvent;
+import pe.edu.unmsm.repo.BankRepo;
+
+import javax.annotation.PreDestroy;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts transfers per bank in memory and adds them to {@code bank_counters.total_transfers} periodically,
+ * so transfers never queue up on the bank row lock.
+ */
+@Component
+public class TransferCounter implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(TransferCounter.class);
+
+    private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final BankRepo bankRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransferCounter(BankRepo bankRepo, PlatformTransactionManager transactionManager) {
+        this.bankRepo = bankRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void increment(Long bankId, int count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(bankId, count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(bankId, count);
+            }
+        });
+    }
+
+    public long pending(Long bankId) {
+        LongAdder adder = pending.get(bankId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.transfer.counter.flush-interval:1000}")
+    public synchronized void flush() {
+        pending.forEach((bankId, adder) -> {
+            long delta = adder.sum();
+            if (delta == 0) return;
+            adder.add(-delta);
+            BankCounterEvent event = new BankCounterEvent();
+            event.begin();
+            try {
+                Integer updated = transactionTemplate.execute(status ->
+                        bankRepo.incrementTotalTransfers(bankId, Math.toIntExact(delta)));
+                if (updated == null || updated == 0) {
+                    log.warn("Banco {} no encontrado, se descartan {} transferencias", bankId, delta);
+                    event.finish(bankId, BankCounterEvent.FLUSH, delta, NoSuchElementException.class.getSimpleName());
+                } else {
+                    event.finish(bankId, BankCounterEvent.FLUSH, delta, TransferEvent.OK);
+                }
+            } catch (RuntimeException e) {
+                adder.add(delta);
+                event.finish(bankId, BankCounterEvent.FLUSH, delta, e.getClass().getSimpleName());
+                log.warn("No se pudo actualizar el contador del banco {}", bankId, e);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transfer.counter.pending", pending, map -> map.values().stream().mapToLong(LongAdder::sum).sum())
+                .description("Transferencias aún no registradas en la tabla banks")
+                .register(registry);
+    }
+
+    private void add(Long bankId, int count) {
+        BankCounterEvent event = new BankCounterEvent();
+        event.begin();
+        pending.computeIfAbsent(bankId, id -> new LongAdder()).add(count);
+        event.finish(bankId, BankCounterEvent.INCREMENT, count, TransferEvent.OK);
+    }
+}
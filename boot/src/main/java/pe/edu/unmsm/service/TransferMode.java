@@ -0,0 +1,22 @@
+package pe.edu.unmsm.service;
+
+public enum TransferMode {
+    /**
+     * Conditional {@code UPDATE} statements, no entity is loaded.
+     */
+    DIRECT,
+    /**
+     * Read-modify-write of both accounts, conflicts are detected through {@code @Version}.
+     */
+    OPTIMISTIC,
+    /**
+     * Both accounts are loaded with {@code SELECT ... FOR UPDATE} in id order, for hot accounts where
+     * optimistic retries would thrash.
+     */
+    PESSIMISTIC,
+    /**
+     * Transfers are queued to a single writer thread that keeps balances in memory and persists them
+     * in group commits, see {@link pe.edu.unmsm.sequencer.TransferSequencer}.
+     */
+    SEQUENCED
+}
@@ -1,3 +1,6 @@
-INSERT INTO accounts(person, balance) VALUES ('Paul', 1000);
-INSERT INTO accounts(person, balance) VALUES ('Fernando', 2000);
-INSERT INTO banks(name, total_transfers) VALUES ('Banco Financiero', 0);
\ No newline at end of file
+INSERT INTO accounts(id, person, person_normalized, balance, version) VALUES (1, 'Paul', 'paul', 1000, 0);
+INSERT INTO accounts(id, person, person_normalized, balance, version) VALUES (2, 'Fernando', 'fernando', 2000, 0);
+INSERT INTO banks(id, name, version) VALUES (1, 'Banco Financiero', 0);
+INSERT INTO bank_counters(bank_id, total_transfers) VALUES (1, 0);
+ALTER SEQUENCE accounts_seq RESTART WITH 3;
+ALTER SEQUENCE banks_seq RESTART WITH 2;
@@ -5,6 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResultDto;
 import pe.edu.unmsm.exception.InsufficientMoneyException;
 import pe.edu.unmsm.model.Account;
 import pe.edu.unmsm.model.Bank;
@@ -14,7 +18,10 @@ import pe.edu.unmsm.service.AccountService;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,74 +38,128 @@ class ApplicationTest {
     @Autowired
     AccountService accountService;
 
+    @Autowired
+    CacheManager cacheManager;
+
     @BeforeEach
     void setUp() {
         /*accountRepo = mock(AccountRepo.class);
         bankRepo = mock(BankRepo.class);
         accountService = new AccountServiceImpl(accountRepo, bankRepo);*/
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
     void contextLoads() {
-        when(accountRepo.findById(1L)).thenReturn(createAccount001());
-        when(accountRepo.findById(2L)).thenReturn(createAccount002());
+        when(accountRepo.findBalanceById(1L)).thenReturn(createBalance001());
+        when(accountRepo.findBalanceById(2L)).thenReturn(createBalance002());
+        when(accountRepo.debit(1L, new BigDecimal("100"))).thenReturn(1);
+        when(accountRepo.credit(2L, new BigDecimal("100"))).thenReturn(1);
         when(bankRepo.findById(1L)).thenReturn(createBank());
+        when(bankRepo.findTotalTransfersById(1L)).thenReturn(Optional.of(0));
 
         BigDecimal sourceBalance = accountService.getBalance(1L);
         BigDecimal targetBalance = accountService.getBalance(2L);
+        int total = accountService.getTotalTransfers(1L);
 
         assertEquals("1000", sourceBalance.toPlainString());
         assertEquals("2000", targetBalance.toPlainString());
 
         accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
-        sourceBalance = accountService.getBalance(1L);
-        targetBalance = accountService.getBalance(2L);
-        int total = accountService.getTotalTransfers(1L);
 
-        assertEquals("900", sourceBalance.toPlainString());
-        assertEquals("2100", targetBalance.toPlainString());
-        assertEquals(1, total);
+        assertEquals(total + 1, accountService.getTotalTransfers(1L));
 
-        verify(accountRepo, times(3)).findById(1L);
-        verify(accountRepo, times(3)).findById(2L);
-        verify(accountRepo, times(2)).save(any(Account.class));
-        verify(bankRepo, times(2)).findById(1L);
-        verify(bankRepo).save(any(Bank.class));
-        verify(accountRepo, times(6)).findById(anyLong());
+        verify(accountRepo).debit(1L, new BigDecimal("100"));
+        verify(accountRepo).credit(2L, new BigDecimal("100"));
+        verify(bankRepo).findById(1L);
+        verify(accountRepo, times(2)).findBalanceById(anyLong());
+        verify(accountRepo, never()).findById(anyLong());
+        verify(accountRepo, never()).existsById(anyLong());
+        verify(accountRepo, never()).save(any(Account.class));
+        verify(bankRepo, never()).incrementTotalTransfers(anyLong(), anyInt());
+        verify(bankRepo, never()).save(any(Bank.class));
         verify(accountRepo, never()).findAll();
     }
 
     @Test
     void contextLoads2() {
-        when(accountRepo.findById(1L)).thenReturn(createAccount001());
-        when(accountRepo.findById(2L)).thenReturn(createAccount002());
+        when(accountRepo.findBalanceById(1L)).thenReturn(createBalance001());
+        when(accountRepo.findBalanceById(2L)).thenReturn(createBalance002());
+        when(accountRepo.debit(1L, new BigDecimal("1200"))).thenReturn(0);
+        when(accountRepo.existsById(1L)).thenReturn(true);
         when(bankRepo.findById(1L)).thenReturn(createBank());
+        when(bankRepo.findTotalTransfersById(1L)).thenReturn(Optional.of(0));
 
         BigDecimal sourceBalance = accountService.getBalance(1L);
         BigDecimal targetBalance = accountService.getBalance(2L);
         BigDecimal transferAmount = new BigDecimal("1200");
-
-        assertEquals("1000", sourceBalance.toPlainString());
-        assertEquals("2000", targetBalance.toPlainString());
-        assertThrows(InsufficientMoneyException.class, () -> accountService.transfer(1L, 1L, 2L, transferAmount));
-
-        sourceBalance = accountService.getBalance(1L);
-        targetBalance = accountService.getBalance(2L);
         int total = accountService.getTotalTransfers(1L);
 
         assertEquals("1000", sourceBalance.toPlainString());
         assertEquals("2000", targetBalance.toPlainString());
-        assertEquals(0, total);
+        assertThrows(InsufficientMoneyException.class, () -> accountService.transfer(1L, 1L, 2L, transferAmount));
+        assertEquals(total, accountService.getTotalTransfers(1L));
 
-        verify(accountRepo, times(3)).findById(1L);
-        verify(accountRepo, times(2)).findById(2L);
+        verify(accountRepo).debit(1L, transferAmount);
+        verify(accountRepo).existsById(1L);
+        verify(accountRepo, never()).credit(anyLong(), any());
         verify(accountRepo, never()).save(any(Account.class));
-        verify(bankRepo, times(1)).findById(1L);
         verify(bankRepo, never()).save(any(Bank.class));
-        verify(accountRepo, times(5)).findById(anyLong());
         verify(accountRepo, never()).findAll();
     }
 
+    @Test
+    void testTransferUnknownAccount() {
+        when(accountRepo.debit(9L, new BigDecimal("100"))).thenReturn(0);
+        when(accountRepo.existsById(9L)).thenReturn(false);
+        when(bankRepo.findById(1L)).thenReturn(createBank());
+
+        BigDecimal transferAmount = new BigDecimal("100");
+        assertThrows(NoSuchElementException.class, () -> accountService.transfer(1L, 9L, 2L, transferAmount));
+        assertThrows(NoSuchElementException.class, () -> accountService.transfer(9L, 1L, 2L, transferAmount));
+
+        verify(accountRepo).debit(anyLong(), any());
+        verify(accountRepo, never()).credit(anyLong(), any());
+    }
+
+    @Test
+    void testTransferInvalidAmount() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.transfer(1L, 1L, 2L, new BigDecimal("-100")));
+        assertThrows(IllegalArgumentException.class, () -> accountService.transfer(1L, 1L, 2L, BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> accountService.transfer(1L, 1L, 2L, null));
+
+        verify(bankRepo, never()).findById(anyLong());
+        verify(accountRepo, never()).debit(anyLong(), any());
+        verify(accountRepo, never()).credit(anyLong(), any());
+    }
+
+    @Test
+    void testTransferRetriesOptimisticLockingFailure() {
+        BigDecimal transferAmount = new BigDecimal("100");
+        when(bankRepo.findById(1L)).thenReturn(createBank());
+        when(accountRepo.debit(1L, transferAmount))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .thenReturn(1);
+        when(accountRepo.credit(2L, transferAmount)).thenReturn(1);
+
+        accountService.transfer(1L, 1L, 2L, transferAmount);
+
+        verify(accountRepo, times(2)).debit(1L, transferAmount);
+        verify(accountRepo).credit(2L, transferAmount);
+    }
+
+    @Test
+    void testTransferGivesUpAfterMaxAttempts() {
+        BigDecimal transferAmount = new BigDecimal("100");
+        when(bankRepo.findById(1L)).thenReturn(createBank());
+        when(accountRepo.debit(1L, transferAmount)).thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> accountService.transfer(1L, 1L, 2L, transferAmount));
+
+        verify(accountRepo, times(3)).debit(1L, transferAmount);
+        verify(accountRepo, never()).credit(anyLong(), any());
+    }
+
     @Test
     void contextLoads3() {
         when(accountRepo.findById(1L)).thenReturn(createAccount001());
@@ -109,7 +170,56 @@ class ApplicationTest {
         assertSame(account1, account2);
         assertEquals("Paul", account1.getPerson());
         assertEquals("Paul", account1.getPerson());
-        verify(accountRepo, times(2)).findById(1L);
+        verify(accountRepo, times(1)).findById(1L);
+    }
+
+    @Test
+    void testFindDetails() {
+        when(accountRepo.findDetailsById(1L)).thenReturn(createDetails001());
+        when(accountRepo.debit(1L, new BigDecimal("100"))).thenReturn(1);
+        when(accountRepo.credit(2L, new BigDecimal("100"))).thenReturn(1);
+        when(bankRepo.findById(1L)).thenReturn(createBank());
+
+        assertEquals("Paul", accountService.findDetails(1L).person());
+        assertSame(accountService.findDetails(1L), accountService.findDetails(1L));
+        verify(accountRepo, times(1)).findDetailsById(1L);
+
+        accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        accountService.findDetails(1L);
+        verify(accountRepo, times(2)).findDetailsById(1L);
+        verify(accountRepo, never()).findById(anyLong());
+    }
+
+    @Test
+    void testCacheEvictedAfterTransfer() {
+        when(accountRepo.findBalanceById(1L)).thenReturn(createBalance001());
+        when(accountRepo.debit(1L, new BigDecimal("100"))).thenReturn(1);
+        when(accountRepo.credit(2L, new BigDecimal("100"))).thenReturn(1);
+        when(bankRepo.findById(1L)).thenReturn(createBank());
+
+        accountService.getBalance(1L);
+        accountService.getBalance(1L);
+        verify(accountRepo, times(1)).findBalanceById(1L);
+
+        accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        accountService.getBalance(1L);
+        verify(accountRepo, times(2)).findBalanceById(1L);
+    }
+
+    @Test
+    void testCacheReloadedWhenTransferFails() {
+        when(accountRepo.findBalanceById(1L)).thenReturn(createBalance001());
+        when(accountRepo.debit(1L, new BigDecimal("100"))).thenReturn(1);
+        when(accountRepo.credit(9L, new BigDecimal("100"))).thenReturn(0);
+        when(bankRepo.findById(1L)).thenReturn(createBank());
+
+        accountService.getBalance(1L);
+        BigDecimal transferAmount = new BigDecimal("100");
+        assertThrows(NoSuchElementException.class, () -> accountService.transfer(1L, 1L, 9L, transferAmount));
+        assertEquals("1000", accountService.getBalance(1L).toPlainString());
+
+        // La transferencia desaloja antes de modificar las cuentas, aunque luego se revierta
+        verify(accountRepo, times(2)).findBalanceById(1L);
     }
 
     @Test
@@ -149,4 +259,88 @@ class ApplicationTest {
 
         verify(accountRepo).save(any());
     }
+
+    @Test
+    void testTransferAll() {
+        //given
+        Account account1 = createAccount001().orElseThrow();
+        Account account2 = createAccount002().orElseThrow();
+        Bank bank = createBank().orElseThrow();
+        when(accountRepo.findAllById(any())).thenReturn(Arrays.asList(account1, account2));
+        when(bankRepo.findAllById(any())).thenReturn(List.of(bank));
+        when(bankRepo.findTotalTransfersById(1L)).thenReturn(Optional.of(0));
+        int total = accountService.getTotalTransfers(1L);
+
+        List<TransactionDto> transactions = Arrays.asList(
+                createTransaction(1L, 2L, "100"),
+                createTransaction(1L, 2L, "5000"),
+                createTransaction(2L, 1L, "300"),
+                createTransaction(1L, 9L, "10")
+        );
+
+        //when
+        List<TransferResultDto> results = accountService.transferAll(transactions.iterator());
+
+        //then
+        assertEquals(4, results.size());
+        assertEquals("OK", results.get(0).status());
+        assertEquals("ERROR", results.get(1).status());
+        assertEquals("Dinero insuficiente en la cuenta", results.get(1).message());
+        assertEquals("OK", results.get(2).status());
+        assertEquals("ERROR", results.get(3).status());
+        assertEquals(3, results.get(3).index());
+
+        assertEquals("1200", account1.getBalance().toPlainString());
+        assertEquals("1800", account2.getBalance().toPlainString());
+        assertEquals(total + 2, accountService.getTotalTransfers(1L));
+
+        verify(accountRepo).findAllById(any());
+        verify(bankRepo).findAllById(any());
+        verify(accountRepo, never()).findById(anyLong());
+        verify(accountRepo, never()).save(any(Account.class));
+    }
+
+    @Test
+    void testTransferAllStopsAtUnreadableTransaction() {
+        //given
+        Account account1 = createAccount001().orElseThrow();
+        Account account2 = createAccount002().orElseThrow();
+        when(accountRepo.findAllById(any())).thenReturn(Arrays.asList(account1, account2));
+        when(bankRepo.findAllById(any())).thenReturn(List.of(createBank().orElseThrow()));
+        Iterator<TransactionDto> transactions = new Iterator<>() {
+            int read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public TransactionDto next() {
+                if (read++ == 1) throw new IllegalStateException("Línea ilegible");
+                return createTransaction(1L, 2L, "100");
+            }
+        };
+
+        //when
+        List<TransferResultDto> results = accountService.transferAll(transactions);
+
+        //then
+        assertEquals(2, results.size());
+        assertEquals("OK", results.get(0).status());
+        assertTrue(results.get(1).isInvalid());
+        assertEquals(1, results.get(1).index());
+        assertEquals("Línea ilegible", results.get(1).message());
+        assertEquals("900", account1.getBalance().toPlainString());
+        assertEquals("2100", account2.getBalance().toPlainString());
+    }
+
+    private TransactionDto createTransaction(Long sourceAccountId, Long targetAccountId, String amount) {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(sourceAccountId);
+        transactionDto.setTargetAccountId(targetAccountId);
+        transactionDto.setAmount(new BigDecimal(amount));
+        return transactionDto;
+    }
 }
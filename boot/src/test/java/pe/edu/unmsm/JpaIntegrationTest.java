@@ -1,16 +1,25 @@
 package pe.edu.unmsm;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import pe.edu.unmsm.dto.AccountDetailsDto;
 import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.Bank;
 import pe.edu.unmsm.repo.AccountRepo;
+import pe.edu.unmsm.repo.BankRepo;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,6 +29,12 @@ class JpaIntegrationTest {
     @Autowired
     AccountRepo accountRepo;
 
+    @Autowired
+    BankRepo bankRepo;
+
+    @Autowired
+    TestEntityManager entityManager;
+
     @Test
     void testFindById() {
         Optional<Account> account = accountRepo.findById(1L);
@@ -62,6 +77,21 @@ class JpaIntegrationTest {
         assertEquals("3000", savedAccount.getBalance().toPlainString());
     }
 
+    @Test
+    void testSaveAllTakesIdsFromOneSequenceBlock() {
+        //when
+        List<Account> saved = accountRepo.saveAll(List.of(
+                new Account(null, "Pepe", new BigDecimal("3000")),
+                new Account(null, "Lucho", new BigDecimal("4000")),
+                new Account(null, "Rosa", new BigDecimal("5000"))));
+        accountRepo.flush();
+
+        //then
+        Long first = saved.get(0).getId();
+        assertTrue(first > 2);
+        assertEquals(List.of(first, first + 1, first + 2), saved.stream().map(Account::getId).toList());
+    }
+
     @Test
     void testUpdate() {
         //given
@@ -94,4 +124,142 @@ class JpaIntegrationTest {
 
         assertEquals(1, accountRepo.count());
     }
+
+    @Test
+    void testDebit() {
+        int updated = accountRepo.debit(1L, new BigDecimal("100"));
+
+        assertEquals(1, updated);
+        assertEquals("900.00", accountRepo.findById(1L).orElseThrow().getBalance().toPlainString());
+    }
+
+    @Test
+    void testDebitInsufficientMoney() {
+        int updated = accountRepo.debit(1L, new BigDecimal("1000.01"));
+
+        assertEquals(0, updated);
+        assertEquals("1000.00", accountRepo.findById(1L).orElseThrow().getBalance().toPlainString());
+    }
+
+    @Test
+    void testCredit() {
+        assertEquals(1, accountRepo.credit(2L, new BigDecimal("100")));
+        assertEquals(0, accountRepo.credit(9L, new BigDecimal("100")));
+        assertEquals("2100.00", accountRepo.findById(2L).orElseThrow().getBalance().toPlainString());
+    }
+
+    @Test
+    void testIncrementTotalTransfers() {
+        assertEquals(1, bankRepo.incrementTotalTransfers(1L, 5));
+        assertEquals(0, bankRepo.incrementTotalTransfers(9L, 5));
+        assertEquals(5, bankRepo.findTotalTransfersById(1L).orElseThrow());
+    }
+
+    @Test
+    void testSavedBankGetsCounter() {
+        Bank bank = bankRepo.save(new Bank(null, "Banco Nuevo"));
+        entityManager.flush();
+
+        assertEquals(0, bankRepo.findTotalTransfersById(bank.getId()).orElseThrow());
+        assertEquals(1, bankRepo.incrementTotalTransfers(bank.getId(), 3));
+        assertEquals(3, bankRepo.findTotalTransfersById(bank.getId()).orElseThrow());
+    }
+
+    @Test
+    void testProjections() {
+        assertEquals("1000.00", accountRepo.findBalanceById(1L).orElseThrow().toBigDecimal().toPlainString());
+        assertTrue(accountRepo.findBalanceById(9L).isEmpty());
+
+        AccountDetailsDto details = accountRepo.findDetailsById(2L).orElseThrow();
+        assertEquals(new AccountDetailsDto(2L, "Fernando", new BigDecimal("2000.00")), details);
+        assertTrue(accountRepo.findDetailsById(9L).isEmpty());
+
+        assertEquals(0, bankRepo.findTotalTransfersById(1L).orElseThrow());
+        assertTrue(bankRepo.findTotalTransfersById(9L).isEmpty());
+
+        // las proyecciones no dejan entidades en el contexto de persistencia
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testFindByIdForUpdate() {
+        Account account = accountRepo.findByIdForUpdate(1L).orElseThrow();
+        assertEquals("Paul", account.getPerson());
+        assertTrue(accountRepo.findByIdForUpdate(9L).isEmpty());
+    }
+
+    @Test
+    void testVersionConflict() {
+        Account account = accountRepo.findById(1L).orElseThrow();
+        assertEquals(0, account.getVersion());
+
+        accountRepo.debit(1L, new BigDecimal("100"));
+        account.credit(new BigDecimal("50"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> accountRepo.saveAndFlush(account));
+    }
+
+    @Test
+    void testFindByIdGreaterThan() {
+        List<Account> firstPage = accountRepo.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(1));
+        assertEquals(1, firstPage.size());
+        assertEquals("Paul", firstPage.get(0).getPerson());
+
+        List<Account> secondPage = accountRepo.findByIdGreaterThanOrderByIdAsc(firstPage.get(0).getId(), PageRequest.ofSize(1));
+        assertEquals(1, secondPage.size());
+        assertEquals("Fernando", secondPage.get(0).getPerson());
+
+        assertTrue(accountRepo.findByIdGreaterThanOrderByIdAsc(secondPage.get(0).getId(), PageRequest.ofSize(1)).isEmpty());
+    }
+
+    @Test
+    void testStreamAll() {
+        try (Stream<Account> accounts = accountRepo.streamAll()) {
+            assertEquals(List.of("Paul", "Fernando"), accounts.map(Account::getPerson).toList());
+        }
+    }
+
+    @Test
+    void testFindAllByPersonIgnoreCase() {
+        accountRepo.save(new Account(null, "PAUL ", new BigDecimal("500")));
+
+        List<Account> accounts = accountRepo.findAllByPersonIgnoreCase("paul");
+
+        assertEquals(2, accounts.size());
+        assertEquals("Paul", accounts.get(0).getPerson());
+        assertEquals("PAUL ", accounts.get(1).getPerson());
+        assertTrue(accountRepo.findAllByPersonIgnoreCase("Unknown").isEmpty());
+    }
+
+    @Test
+    void testPersonNormalizedFollowsUpdates() {
+        Account account = accountRepo.findById(2L).orElseThrow();
+        account.setPerson("José");
+        accountRepo.saveAndFlush(account);
+
+        assertEquals("jose", account.getPersonNormalized());
+        assertEquals(List.of(account), accountRepo.findAllByPersonIgnoreCase("JOSE"));
+    }
+
+    @Test
+    void testBalanceChangedInPlaceIsFlushed() {
+        Account account = accountRepo.findById(1L).orElseThrow();
+        account.debit(new BigDecimal("100.50"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Account reloaded = accountRepo.findById(1L).orElseThrow();
+        assertEquals("899.50", reloaded.getBalance().toPlainString());
+        assertEquals(1, reloaded.getVersion());
+    }
+
+    @Test
+    void testApplyBalanceDeltas() {
+        accountRepo.applyBalanceDeltas(Map.of(1L, new BigDecimal("-150.50"), 2L, new BigDecimal("150.50")));
+        entityManager.clear();
+
+        assertEquals("849.50", accountRepo.findById(1L).orElseThrow().getBalance().toPlainString());
+        assertEquals("2150.50", accountRepo.findById(2L).orElseThrow().getBalance().toPlainString());
+        assertThrows(NoSuchElementException.class, () -> accountRepo.applyBalanceDeltas(Map.of(9L, BigDecimal.ONE)));
+    }
 }
@@ -0,0 +1,29 @@
+package pe.edu.unmsm.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransferRetryAspectTest {
+    @Test
+    void testInterruptedBackoff() throws Throwable {
+        TransferRetryAspect aspect = new TransferRetryAspect(new SimpleMeterRegistry(), 3, 1000, 1000);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        OptimisticLockingFailureException conflict = new OptimisticLockingFailureException("Versión desactualizada");
+        when(joinPoint.proceed()).thenThrow(conflict);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertSame(conflict, assertThrows(OptimisticLockingFailureException.class, () -> aspect.retry(joinPoint)));
+            assertTrue(Thread.currentThread().isInterrupted());
+            assertInstanceOf(InterruptedException.class, conflict.getSuppressed()[0]);
+        } finally {
+            Thread.interrupted();
+        }
+        verify(joinPoint, times(1)).proceed();
+    }
+}
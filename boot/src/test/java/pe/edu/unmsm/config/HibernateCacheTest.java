@@ -0,0 +1,57 @@
+package pe.edu.unmsm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pe.edu.unmsm.model.Bank;
+import pe.edu.unmsm.service.AccountService;
+import pe.edu.unmsm.service.TransferCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class HibernateCacheTest {
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    TransferCounter transferCounter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testBankCachedAcrossTransfers() {
+        accountService.transfer(1L, 1L, 2L, new BigDecimal("10"));
+        transferCounter.flush();
+        accountService.transfer(1L, 2L, 1L, new BigDecimal("10"));
+        accountService.transfer(1L, 1L, 2L, new BigDecimal("10"));
+
+        // Ni los UPDATE nativos de los saldos ni el del contador expulsan al banco
+        assertTrue(entityManagerFactory.getCache().contains(Bank.class, 1L));
+        CacheRegionStatistics banks = statistics.getDomainDataRegionStatistics(HibernateCacheConfig.BANKS);
+        assertEquals(1, banks.getMissCount());
+        assertEquals(2, banks.getHitCount());
+        assertEquals(2.0 / 3, meterRegistry.get("hibernate.cache.hit.ratio").tag("region", HibernateCacheConfig.BANKS).gauge().value(), 1e-9);
+    }
+}
@@ -0,0 +1,34 @@
+package pe.edu.unmsm.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigTest {
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void testDisabledByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(ExecutorService.class));
+    }
+
+    @Test
+    void testEnabled() {
+        contextRunner.withPropertyValues("app.threads.virtual=true").run(context -> {
+            if (!VirtualThreadConfig.isSupported()) {
+                assertThat(context).hasFailed();
+                assertThat(context.getStartupFailure()).hasRootCauseMessage(
+                        "app.threads.virtual requiere Java 21 o superior (se ejecuta con Java " + Runtime.version().feature() + ")");
+                return;
+            }
+            Future<Boolean> virtual = context.getBean(ExecutorService.class)
+                    .submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            assertThat(virtual.get()).isTrue();
+        });
+    }
+}
@@ -1,26 +1,37 @@
 package pe.edu.unmsm.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import pe.edu.unmsm.Data;
+import pe.edu.unmsm.dto.AccountBulkResultDto;
+import pe.edu.unmsm.dto.AccountPageDto;
+import pe.edu.unmsm.dto.AsyncTransferDto;
 import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResultDto;
 import pe.edu.unmsm.model.Account;
 import pe.edu.unmsm.service.AccountService;
+import pe.edu.unmsm.service.AsyncTransferService;
+import pe.edu.unmsm.service.IdempotencyService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +44,12 @@ class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private AsyncTransferService asyncTransferService;
+
     ObjectMapper objectMapper;
 
     @BeforeEach
@@ -43,7 +60,7 @@ class AccountControllerTest {
     @Test
     void testDetails() throws Exception {
         //given
-        when(accountService.findById(1L)).thenReturn(Data.createAccount001().orElseThrow());
+        when(accountService.findDetails(1L)).thenReturn(Data.createDetails001().orElseThrow());
 
         //when
         mockMvc.perform(get("/api/accounts/1").contentType(MediaType.APPLICATION_JSON))
@@ -53,7 +70,7 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.person").value("Paul"))
                 .andExpect(jsonPath("$.balance").value("1000"));
 
-        verify(accountService).findById(1L);
+        verify(accountService).findDetails(1L);
     }
 
     @Test
@@ -88,6 +105,135 @@ class AccountControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(response)));
     }
 
+    @Test
+    void testTransferCbor() throws Exception {
+        //given
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("100"));
+
+        //when
+        MvcResult result = mockMvc.perform(post("/api/accounts/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(objectMapper.writeValueAsString(transactionDto)))
+                //then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode json = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Transferencia realizada con éxito!", json.path("message").asText());
+        assertEquals(2L, json.path("transaction").path("targetAccountId").asLong());
+        assertEquals(0, new BigDecimal("100").compareTo(json.path("transaction").path("amount").decimalValue()));
+    }
+
+    @Test
+    void testTransferWithIdempotencyKey() throws Exception {
+        //given
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("100"));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "OK");
+        when(idempotencyService.execute(eq("abc-123"), any(), any())).thenReturn(ResponseEntity.ok(response));
+
+        //when
+        mockMvc.perform(post("/api/accounts/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "abc-123")
+                        .content(objectMapper.writeValueAsString(transactionDto)))
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("OK"));
+
+        verify(idempotencyService).execute(eq("abc-123"), any(), any());
+        verify(accountService, never()).transfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void testTransferAsync() throws Exception {
+        //given
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("100"));
+        when(asyncTransferService.submit(any())).thenReturn(AsyncTransferDto.pending("t-1"));
+
+        //when
+        mockMvc.perform(post("/api/accounts/transfers/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transactionDto)))
+                //then
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/accounts/transfers/t-1"))
+                .andExpect(jsonPath("$.id").value("t-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(asyncTransferService).submit(any());
+        verify(accountService, never()).transfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void testTransferAsyncWithIdempotencyKey() throws Exception {
+        //given
+        when(asyncTransferService.submit(any())).thenReturn(AsyncTransferDto.pending("t-1"));
+        when(idempotencyService.execute(eq("abc-123"), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity<?>>>getArgument(2).get());
+
+        //when
+        mockMvc.perform(post("/api/accounts/transfers/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "abc-123")
+                        .content("{\"bankId\":1,\"sourceAccountId\":1,\"targetAccountId\":2,\"amount\":100}"))
+                //then
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/accounts/transfers/t-1"))
+                .andExpect(jsonPath("$.id").value("t-1"));
+
+        verify(idempotencyService).execute(eq("abc-123"), any(), any());
+        verify(asyncTransferService).submit(any());
+    }
+
+    @Test
+    void testTransferAsyncRejected() throws Exception {
+        //given
+        when(asyncTransferService.submit(any()))
+                .thenThrow(new IllegalArgumentException("Monto inválido"))
+                .thenThrow(new RejectedExecutionException());
+
+        //when
+        mockMvc.perform(post("/api/accounts/transfers/async").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                //then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Monto inválido"));
+        mockMvc.perform(post("/api/accounts/transfers/async").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value("ERROR"));
+    }
+
+    @Test
+    void testTransferStatus() throws Exception {
+        //given
+        when(asyncTransferService.status("t-1")).thenReturn(AsyncTransferDto.ok("t-1"));
+        when(asyncTransferService.status("t-2")).thenThrow(new NoSuchElementException());
+
+        //when
+        mockMvc.perform(get("/api/accounts/transfers/t-1"))
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("OK"));
+        mockMvc.perform(get("/api/accounts/transfers/t-2"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testList() throws Exception {
         //given
@@ -130,4 +276,184 @@ class AccountControllerTest {
 
         verify(accountService).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTransferBatch() throws Exception {
+        //given
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("100"));
+        List<TransactionDto> transactions = Arrays.asList(transactionDto, transactionDto);
+
+        when(accountService.transferAll(any())).thenReturn(Arrays.asList(
+                TransferResultDto.ok(0),
+                TransferResultDto.error(1, "Dinero insuficiente en la cuenta")
+        ));
+
+        //when
+        mockMvc.perform(post("/api/accounts/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transactions)))
+                //then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("OK"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].message").value("Dinero insuficiente en la cuenta"));
+
+        verify(accountService).transferAll(any());
+    }
+
+    @Test
+    void testTransferBatchNdjson() throws Exception {
+        //given
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("100"));
+        String line = objectMapper.writeValueAsString(transactionDto);
+
+        when(accountService.transferAll(any())).then(invocationOnMock -> {
+            Iterator<TransactionDto> transactions = invocationOnMock.getArgument(0);
+            List<TransferResultDto> results = new ArrayList<>();
+            while (transactions.hasNext()) {
+                transactions.next();
+                results.add(TransferResultDto.ok(results.size()));
+            }
+            return results;
+        });
+
+        //when
+        mockMvc.perform(post("/api/accounts/transfers/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n" + line + "\n" + line + "\n"))
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].status").value("OK"));
+    }
+
+    @Test
+    void testTransferBatchNdjsonMalformedLine() throws Exception {
+        //given
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("100"));
+        String line = objectMapper.writeValueAsString(transactionDto);
+
+        when(accountService.transferAll(any())).then(invocationOnMock -> {
+            Iterator<TransactionDto> transactions = invocationOnMock.getArgument(0);
+            List<TransferResultDto> results = new ArrayList<>();
+            try {
+                while (transactions.hasNext()) {
+                    transactions.next();
+                    results.add(TransferResultDto.ok(results.size()));
+                }
+            } catch (RuntimeException e) {
+                results.add(TransferResultDto.invalid(results.size(), e.getMessage()));
+            }
+            return results;
+        });
+
+        //when
+        mockMvc.perform(post("/api/accounts/transfers/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n{\"bankId\": \"uno\"}\n" + line + "\n"))
+                //then
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("OK"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"));
+    }
+
+    @Test
+    void testSaveAll() throws Exception {
+        //given
+        List<Account> accounts = Arrays.asList(new Account(null, "Pepe", new BigDecimal("3000")),
+                new Account(null, "Lucho", new BigDecimal("4000")));
+        when(accountService.saveAll(any())).then(invocationOnMock -> {
+            Iterator<Account> iterator = invocationOnMock.getArgument(0);
+            int created = 0;
+            for (; iterator.hasNext(); created++) iterator.next();
+            return AccountBulkResultDto.ok(created);
+        });
+
+        //when
+        mockMvc.perform(post("/api/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(accounts)))
+                //then
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2));
+
+        verify(accountService).saveAll(any());
+    }
+
+    @Test
+    void testSaveAllPartialFailure() throws Exception {
+        //given
+        List<Account> accounts = Arrays.asList(new Account(null, "Pepe", new BigDecimal("3000")),
+                new Account(null, "Lucho", new BigDecimal("4000")));
+        when(accountService.saveAll(any())).thenReturn(AccountBulkResultDto.error(1, "Valor fuera de rango"));
+
+        //when
+        mockMvc.perform(post("/api/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(accounts)))
+                //then
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failedAt").value(1))
+                .andExpect(jsonPath("$.message").value("Valor fuera de rango"));
+    }
+
+    @Test
+    void testListPage() throws Exception {
+        //given
+        Account account = Data.createAccount001().orElseThrow();
+        when(accountService.findPage(null, 1)).thenReturn(new AccountPageDto(List.of(account), 1L));
+
+        //when
+        mockMvc.perform(get("/api/accounts").param("limit", "1"))
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].person").value("Paul"))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        verify(accountService).findPage(null, 1);
+        verify(accountService, never()).findAll();
+    }
+
+    @Test
+    void testStream() throws Exception {
+        //given
+        doAnswer(invocationOnMock -> {
+            Consumer<Account> consumer = invocationOnMock.getArgument(0);
+            consumer.accept(Data.createAccount001().orElseThrow());
+            consumer.accept(Data.createAccount002().orElseThrow());
+            return null;
+        }).when(accountService).streamAll(any());
+
+        //when
+        MvcResult result = mockMvc.perform(get("/api/accounts/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                //then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].person").value("Paul"))
+                .andExpect(jsonPath("$[1].person").value("Fernando"));
+    }
+}
@@ -8,10 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import pe.edu.unmsm.dto.AsyncTransferDto;
 import pe.edu.unmsm.dto.TransactionDto;
 import pe.edu.unmsm.model.Account;
 
@@ -176,6 +179,55 @@ class AccountControllerTestRestTemplateTest {
         assertFalse(responseEntityDetails.hasBody());
     }
 
+    @Test
+    @Order(6)
+    void testTransferAsync() throws InterruptedException {
+        //given
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(2L);
+        transactionDto.setTargetAccountId(1L);
+        transactionDto.setAmount(new BigDecimal("100"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "async-1");
+        HttpEntity<TransactionDto> request = new HttpEntity<>(transactionDto, headers);
+
+        //when
+        ResponseEntity<AsyncTransferDto> accepted = client.postForEntity(buildUrl("/api/accounts/transfers/async"), request, AsyncTransferDto.class);
+        ResponseEntity<AsyncTransferDto> retried = client.postForEntity(buildUrl("/api/accounts/transfers/async"), request, AsyncTransferDto.class);
+
+        //then
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        assertNotNull(accepted.getBody());
+        assertNotNull(accepted.getHeaders().getLocation());
+        assertEquals(HttpStatus.ACCEPTED, retried.getStatusCode());
+        assertEquals(accepted.getBody().id(), retried.getBody().id());
+
+        AsyncTransferDto status = accepted.getBody();
+        for (int i = 0; i < 100 && !status.isDone(); i++) {
+            Thread.sleep(50);
+            status = client.getForObject(buildUrl(accepted.getHeaders().getLocation().getPath()), AsyncTransferDto.class);
+        }
+        assertEquals("OK", status.status());
+        assertEquals("1000.00", client.getForObject(buildUrl("/api/accounts/1"), Account.class).getBalance().toPlainString());
+    }
+
+    @Test
+    @Order(7)
+    void testSaveExistingAfterTransfers() {
+        //given
+        Account account = new Account(1L, "Paul", new BigDecimal("1000.00"));
+
+        //when
+        ResponseEntity<Account> responseEntity = client.postForEntity(buildUrl("/api/accounts"), account, Account.class);
+
+        //then
+        assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+        Account details = client.getForObject(buildUrl("/api/accounts/1"), Account.class);
+        assertEquals("Paul", details.getPerson());
+        assertEquals("1000.00", details.getBalance().toPlainString());
+    }
+
     private String buildUrl(String uri) {
         return "http://localhost:" + port + uri;
     }
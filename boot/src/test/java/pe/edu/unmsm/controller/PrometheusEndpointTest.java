@@ -0,0 +1,59 @@
+package pe.edu.unmsm.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import pe.edu.unmsm.dto.TransactionDto;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:prometheus",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.account.service=true",
+        "management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations=true",
+        "management.metrics.distribution.percentiles-histogram.transactions=true",
+        "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true"
+})
+class PrometheusEndpointTest {
+    @Autowired
+    private TestRestTemplate client;
+
+    @Test
+    void testScrapeCoversEveryLayer() {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("10"));
+        assertEquals(HttpStatus.OK, client.postForEntity("/api/accounts/transfer", transactionDto, String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, client.getForEntity("/api/accounts/1", String.class).getStatusCode());
+
+        ResponseEntity<String> response = client.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String scrape = response.getBody();
+        assertContains(scrape, "http_server_requests_seconds_bucket{exception=\"None\",method=\"POST\"");
+        assertContains(scrape, "account_service_seconds_bucket{exception=\"none\",method=\"transfer\"");
+        assertContains(scrape, "spring_data_repository_invocations_seconds_bucket{");
+        assertContains(scrape, "method=\"debit\"");
+        assertContains(scrape, "transactions_seconds_bucket{outcome=\"commit\",read_only=\"false\"");
+        assertContains(scrape, "hikaricp_connections_acquire_seconds_bucket{");
+        assertContains(scrape, "hibernate_statements_total{");
+        assertContains(scrape, "hibernate_cache_hit_ratio{region=\"banks\"");
+    }
+
+    private static void assertContains(String scrape, String metric) {
+        assertTrue(scrape.contains(metric), () -> metric + " no está en /actuator/prometheus");
+    }
+}
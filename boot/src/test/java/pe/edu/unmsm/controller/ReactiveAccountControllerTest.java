@@ -0,0 +1,146 @@
+package pe.edu.unmsm.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.repo.ReactiveAccountRepo;
+import pe.edu.unmsm.service.ReactiveAccountService;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa"
+})
+class ReactiveAccountControllerTest {
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ReactiveAccountService accountService;
+
+    @SpyBean
+    private ReactiveAccountRepo accountRepo;
+
+    @Test
+    void testListAndDetails() {
+        client.get().uri("/api/accounts").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Account.class).hasSize(2);
+
+        client.get().uri("/api/accounts/1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.person").isEqualTo("Paul");
+
+        client.get().uri("/api/accounts/99").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testTransfer() {
+        BigDecimal source = accountService.getBalance(1L).block();
+        BigDecimal target = accountService.getBalance(2L).block();
+
+        client.post().uri("/api/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(transaction(2L, new BigDecimal("100")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("OK")
+                .jsonPath("$.transaction.amount").isEqualTo(100);
+
+        assertEquals(0, source.subtract(new BigDecimal("100")).compareTo(accountService.getBalance(1L).block()));
+        assertEquals(0, target.add(new BigDecimal("100")).compareTo(accountService.getBalance(2L).block()));
+    }
+
+    @Test
+    void testTransferInsufficientMoney() {
+        BigDecimal source = accountService.getBalance(1L).block();
+
+        client.post().uri("/api/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(transaction(2L, new BigDecimal("1000000")))
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        assertEquals(0, source.compareTo(accountService.getBalance(1L).block()));
+    }
+
+    @Test
+    void testTransferRollsBackDebitWhenTargetIsMissing() {
+        BigDecimal source = accountService.getBalance(1L).block();
+
+        client.post().uri("/api/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(transaction(99L, new BigDecimal("10")))
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        assertEquals(0, source.compareTo(accountService.getBalance(1L).block()));
+    }
+
+    @Test
+    void testConcurrentOppositeTransfers() {
+        // Cada UPDATE se retrasa, así ambas transacciones ya tienen una fila cuando piden la otra:
+        // sin un orden común de bloqueo, 1 -> 2 y 2 -> 1 se bloquearían mutuamente
+        doAnswer(invocation -> ((Mono<?>) invocation.callRealMethod()).delaySubscription(Duration.ofMillis(200), Schedulers.boundedElastic()))
+                .when(accountRepo).debit(any(), any());
+        doAnswer(invocation -> ((Mono<?>) invocation.callRealMethod()).delaySubscription(Duration.ofMillis(200), Schedulers.boundedElastic()))
+                .when(accountRepo).credit(any(), any());
+        BigDecimal source = accountService.getBalance(1L).block();
+        BigDecimal target = accountService.getBalance(2L).block();
+
+        Mono.when(accountService.transfer(1L, 1L, 2L, BigDecimal.ONE).subscribeOn(Schedulers.boundedElastic()),
+                        accountService.transfer(1L, 2L, 1L, BigDecimal.ONE).subscribeOn(Schedulers.boundedElastic()))
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(0, source.compareTo(accountService.getBalance(1L).block()));
+        assertEquals(0, target.compareTo(accountService.getBalance(2L).block()));
+    }
+
+    @Test
+    void testSaveAndDelete() {
+        Account saved = client.post().uri("/api/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Account(null, "Pepe", new BigDecimal("3000")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Account.class)
+                .returnResult().getResponseBody();
+
+        client.get().uri("/api/accounts/{id}", saved.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.person").isEqualTo("Pepe");
+
+        client.delete().uri("/api/accounts/{id}", saved.getId()).exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/api/accounts/{id}", saved.getId()).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private static TransactionDto transaction(Long targetAccountId, BigDecimal amount) {
+        TransactionDto dto = new TransactionDto();
+        dto.setBankId(1L);
+        dto.setSourceAccountId(1L);
+        dto.setTargetAccountId(targetAccountId);
+        dto.setAmount(amount);
+        return dto;
+    }
+}
@@ -0,0 +1,98 @@
+package pe.edu.unmsm.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.unmsm.Application;
+import pe.edu.unmsm.config.VirtualThreadConfig;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 5000 clientes concurrentes contra POST /api/accounts/transfer, con el pool de hilos de Tomcat y con
+ * el perfil {@code virtual}. Se ejecuta con {@code mvn test -Dload=true}; {@code -Dclients} cambia el número
+ * de clientes. La variante virtual solo corre con Java 21+; para ver los hilos fijados añadir
+ * {@code -DargLine=-Djdk.tracePinnedThreads=short}.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class VirtualThreadLoadTest {
+    private static final int CLIENTS = Integer.getInteger("clients", 5_000);
+    private static final int REQUESTS_PER_CLIENT = 4;
+    private static final int ACCOUNTS = 10_000;
+
+    @ParameterizedTest(name = "hilos virtuales: {0}")
+    @ValueSource(booleans = {false, true})
+    void testConcurrentClients(boolean virtual) {
+        assumeTrue(!virtual || VirtualThreadConfig.isSupported(), "Los hilos virtuales requieren Java 21+");
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:virtual-" + virtual));
+        if (virtual) args.add("--spring.profiles.active=virtual");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(args.toArray(String[]::new))) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("INSERT INTO accounts(id, person, person_normalized, balance, version) "
+                    + "SELECT NEXT VALUE FOR accounts_seq, 'Cliente ' || X, 'cliente ' || X, 1000000, 0 FROM SYSTEM_RANGE(1, ?)", ACCOUNTS);
+            BigDecimal totalBefore = jdbcTemplate.queryForObject("SELECT SUM(balance) FROM accounts", BigDecimal.class);
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/accounts/transfer");
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger next = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+            long start = System.nanoTime();
+            CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                clients[i] = send(client, uri, REQUESTS_PER_CLIENT, latencies, next, failures);
+            }
+            CompletableFuture.allOf(clients).join();
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            System.out.printf("%-9s %d clientes: %7.0f transferencias/s, p50 %7.2f ms, p99 %8.2f ms, fallidas %d%n",
+                    virtual ? "virtual" : "platform", CLIENTS, latencies.length * 1e9 / elapsed,
+                    latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6, failures.get());
+            assertEquals(0, totalBefore.compareTo(jdbcTemplate.queryForObject("SELECT SUM(balance) FROM accounts", BigDecimal.class)));
+        }
+    }
+
+    private static CompletableFuture<Void> send(HttpClient client, URI uri, int remaining, long[] latencies,
+                                                AtomicInteger next, AtomicInteger failures) {
+        if (remaining == 0) return CompletableFuture.completedFuture(null);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long source = random.nextLong(3, ACCOUNTS + 3);
+        long target = random.nextLong(3, ACCOUNTS + 3);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"bankId\":1,\"sourceAccountId\":" + source
+                        + ",\"targetAccountId\":" + target + ",\"amount\":1}"))
+                .build();
+        long begin = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    latencies[next.getAndIncrement()] = System.nanoTime() - begin;
+                    if (error != null || response.statusCode() != 200) failures.incrementAndGet();
+                    return null;
+                })
+                .thenCompose(ignored -> send(client, uri, remaining - 1, latencies, next, failures));
+    }
+}
@@ -0,0 +1,69 @@
+package pe.edu.unmsm.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferResponseTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSameJsonAsMap() throws Exception {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setBankId(1L);
+        transactionDto.setSourceAccountId(1L);
+        transactionDto.setTargetAccountId(2L);
+        transactionDto.setAmount(new BigDecimal("100.50"));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("date", LocalDate.now().toString());
+        response.put("status", "OK");
+        response.put("message", "Transferencia realizada con éxito!");
+        response.put("transaction", transactionDto);
+
+        assertEquals(objectMapper.writeValueAsString(response),
+                objectMapper.writeValueAsString(TransferResponse.ok(transactionDto)));
+    }
+
+    @Test
+    void testNullTransactionFields() throws Exception {
+        String json = objectMapper.writeValueAsString(TransferResponse.ok(new TransactionDto()));
+
+        assertTrue(json.contains("\"transaction\":{\"bankId\":null,\"sourceAccountId\":null,\"targetAccountId\":null,\"amount\":null}"));
+    }
+
+    @Test
+    void testTransactionFollowsMapperSettings() throws Exception {
+        ObjectMapper plainMapper = new ObjectMapper().enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setAmount(new BigDecimal("1E+3"));
+
+        String json = plainMapper.writeValueAsString(TransferResponse.ok(transactionDto));
+
+        assertTrue(json.contains(plainMapper.writeValueAsString(transactionDto)));
+        assertTrue(json.contains("\"amount\":1000"));
+    }
+
+    @Test
+    void testDateRefreshesAfterMidnight() {
+        ZoneId zone = ZoneOffset.ofHours(-5);
+        Instant beforeMidnight = LocalDate.of(2024, 12, 31).atTime(23, 59, 59).atZone(zone).toInstant();
+        TransferResponse.DayCache cache = new TransferResponse.DayCache(Clock.fixed(beforeMidnight, zone));
+
+        String first = cache.current(beforeMidnight.toEpochMilli());
+        assertEquals("2024-12-31", first);
+        assertSame(first, cache.current(beforeMidnight.toEpochMilli() + 999));
+        assertEquals("2025-01-01", cache.current(beforeMidnight.toEpochMilli() + 1000));
+    }
+}
@@ -0,0 +1,85 @@
+package pe.edu.unmsm.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.service.AccountService;
+import pe.edu.unmsm.service.TransferCounter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.transfer.mode=optimistic")
+class TransferEventsTest {
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    TransferCounter transferCounter;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEvents() throws Exception {
+        Path file = dir.resolve("transfers.jfr");
+        try (Recording recording = new Recording(TransferRecording.settings())) {
+            recording.start();
+            accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+            assertThrows(InsufficientMoneyException.class, () -> accountService.transfer(1L, 1L, 2L, new BigDecimal("1000000")));
+            transferCounter.flush();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> transfers = ofType(events, TransferEvent.NAME);
+        assertEquals(2, transfers.size());
+        RecordedEvent ok = transfers.get(0);
+        assertEquals("optimistic", ok.getString("mode"));
+        assertEquals("ok", ok.getString("outcome"));
+        assertEquals(1L, ok.getLong("sourceAccountId"));
+        assertEquals(2L, ok.getLong("targetAccountId"));
+        assertEquals("100", ok.getString("amount"));
+        assertTrue(ok.getDuration("balances").toNanos() > 0);
+        assertTrue(ok.getDuration("commit").toNanos() > 0);
+        assertEquals("InsufficientMoneyException", transfers.get(1).getString("outcome"));
+
+        List<String> balanceChanges = ofType(events, BalanceChangeEvent.NAME).stream()
+                .map(e -> e.getString("operation") + " " + e.getLong("accountId") + " " + e.getString("outcome"))
+                .collect(Collectors.toList());
+        assertEquals(List.of("debit 1 ok", "credit 2 ok", "debit 1 InsufficientMoneyException"), balanceChanges);
+
+        List<String> counters = ofType(events, BankCounterEvent.NAME).stream()
+                .map(e -> e.getString("operation") + " " + e.getLong("transfers") + " " + e.getString("outcome"))
+                .collect(Collectors.toList());
+        assertEquals(List.of("increment 1 ok", "flush 1 ok"), counters);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransferJfrAnalyzer.report(file, new PrintStream(out, true, StandardCharsets.UTF_8));
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("optimistic ok"), report);
+        assertTrue(report.contains("optimistic InsufficientMoneyException"), report);
+        assertTrue(report.contains("lockWait="), report);
+        assertTrue(report.contains("flush ok"), report);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
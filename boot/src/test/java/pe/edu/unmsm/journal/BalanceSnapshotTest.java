@@ -0,0 +1,95 @@
+package pe.edu.unmsm.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pe.edu.unmsm.model.Money;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceSnapshotTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLookup() {
+        BalanceSnapshot snapshot;
+        try (BalanceSnapshot.Writer writer = BalanceSnapshot.writer(directory.resolve("snapshot.bin"), 42)) {
+            for (long id = 1; id <= 10_000; id += 2) {
+                writer.account(id, id * 100, 2);
+            }
+            TreeMap<Long, Integer> banks = new TreeMap<>();
+            banks.put(1L, 7);
+            banks.put(3L, 0);
+            snapshot = writer.finish(banks);
+        }
+
+        assertEquals(42, snapshot.getSequence());
+        assertEquals(5_000, snapshot.getAccountCount());
+        assertEquals(Money.ofMinor(99_900, 2), snapshot.balance(999));
+        assertEquals(Money.ofMinor(100, 2), snapshot.balance(1));
+        assertNull(snapshot.balance(2));
+        assertNull(snapshot.balance(10_001));
+        assertEquals(7, snapshot.totalTransfers(1));
+        assertEquals(0, snapshot.totalTransfers(3));
+        assertEquals(-1, snapshot.totalTransfers(2));
+
+        List<Long> ids = new ArrayList<>();
+        snapshot.forEachAccount((id, units, scale) -> ids.add(id));
+        assertEquals(5_000, ids.size());
+        assertEquals(9_999L, ids.get(ids.size() - 1));
+        assertEquals(snapshot.getSequence(), BalanceSnapshot.open(directory.resolve("snapshot.bin")).getSequence());
+    }
+
+    @Test
+    void testAccountsMustBeOrdered() throws IOException {
+        try (BalanceSnapshot.Writer writer = BalanceSnapshot.writer(directory.resolve("snapshot.bin"), 1)) {
+            writer.account(5, 1, 0);
+            assertThrows(IllegalArgumentException.class, () -> writer.account(5, 1, 0));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testChangedAccounts() {
+        BalanceSnapshot snapshot;
+        try (BalanceSnapshot.Writer writer = BalanceSnapshot.writer(directory.resolve("snapshot.bin"), 3)) {
+            writer.account(1, 100, 2).account(2, 200, 2).account(3, 300, 2);
+            writer.changed(1).changed(3);
+            assertThrows(IllegalArgumentException.class, () -> writer.changed(3));
+            assertThrows(IllegalStateException.class, () -> writer.account(4, 400, 2));
+            snapshot = writer.finish(new TreeMap<>(Map.of(1L, 2)));
+        }
+
+        List<Long> changed = new ArrayList<>();
+        snapshot.forEachChanged(changed::add);
+        assertEquals(List.of(1L, 3L), changed);
+        assertEquals(2, snapshot.getChangedCount());
+        assertEquals(Money.ofMinor(300, 2), snapshot.balance(3));
+        assertEquals(2, snapshot.totalTransfers(1));
+    }
+
+    @Test
+    void testTruncatedSnapshotIsRejected() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        try (BalanceSnapshot.Writer writer = BalanceSnapshot.writer(file, 1)) {
+            writer.account(1, 100, 2).account(2, 200, 2);
+            writer.finish(new TreeMap<>());
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThrows(IllegalStateException.class, () -> BalanceSnapshot.open(file));
+    }
+}
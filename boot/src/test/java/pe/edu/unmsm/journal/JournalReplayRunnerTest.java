@@ -0,0 +1,54 @@
+package pe.edu.unmsm.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.unmsm.Application;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.service.AccountService;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El segundo arranque reaplica el diario completo sobre import.sql; la cuenta creada en el primero ya
+ * no existe y se omite.
+ */
+class JournalReplayRunnerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplaySkipsUnknownAccounts() {
+        try (ConfigurableApplicationContext context = start("primero")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            Account created = accountService.save(new Account(null, "Pepe", new BigDecimal("500")));
+            accountService.transfer(1L, 1L, created.getId(), new BigDecimal("100"));
+            accountService.transfer(1L, 1L, 2L, new BigDecimal("50"));
+        }
+
+        try (ConfigurableApplicationContext context = start("segundo")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            assertEquals(0, new BigDecimal("850").compareTo(balance(jdbcTemplate, 1L)));
+            assertEquals(0, new BigDecimal("2050").compareTo(balance(jdbcTemplate, 2L)));
+            assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Integer.class));
+        }
+    }
+
+    private ConfigurableApplicationContext start(String name) {
+        return new SpringApplicationBuilder(Application.class).run("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:replay-" + name,
+                "--app.journal.enabled=true",
+                "--app.journal.replay-on-startup=true",
+                "--app.journal.dir=" + directory.resolve("journal"),
+                "--app.snapshot.enabled=false");
+    }
+
+    private static BigDecimal balance(JdbcTemplate jdbcTemplate, Long accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
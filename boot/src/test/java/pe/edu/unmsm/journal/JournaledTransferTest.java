@@ -0,0 +1,66 @@
+package pe.edu.unmsm.journal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.service.AccountService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.journal.enabled=true", "app.journal.dir=target/journal-${random.uuid}"})
+class JournaledTransferTest {
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    TransferJournal journal;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void testOnlyCommittedTransfersAreJournaled() {
+        long before = journal.getLastSequence();
+
+        accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        assertThrows(InsufficientMoneyException.class, () -> accountService.transfer(1L, 1L, 2L, new BigDecimal("1000000")));
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(before, records::add);
+        assertEquals(1, records.size());
+        assertEquals(1L, records.get(0).sourceAccountId());
+        assertEquals(2L, records.get(0).targetAccountId());
+        assertEquals(0, new BigDecimal("100").compareTo(records.get(0).amount()));
+    }
+
+    @Test
+    void testFailedCommitIsCancelled() {
+        long before = journal.getLastSequence();
+
+        assertThrows(IllegalStateException.class, () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            journal.record(1L, 1L, 2L, BigDecimal.TEN);
+            // Se registra después del diario, así que falla con el registro ya escrito
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("Commit fallido");
+                }
+            });
+        }));
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(before, records::add);
+        assertEquals(2, records.size());
+        assertEquals(0, records.stream().mapToInt(JournalRecord::transfers).sum());
+        assertEquals(0, records.get(0).amount().add(records.get(1).amount()).signum());
+    }
+}
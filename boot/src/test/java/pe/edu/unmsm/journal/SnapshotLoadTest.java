@@ -0,0 +1,90 @@
+package pe.edu.unmsm.journal;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Arranque de {@link SnapshotService} desde un snapshot de 10^6 cuentas más una cola de 10^5 registros
+ * del diario, sobre una tabla de cuentas en H2. Se ejecuta con {@code mvn test -Dload=true};
+ * {@code -Dsnapshot.accounts} cambia el número de cuentas.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class SnapshotLoadTest {
+    private static final int TAIL = 100_000;
+    private static final int LOOKUPS = 100_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testStartup() throws Exception {
+        int accounts = Integer.getInteger("snapshot.accounts", 1_000_000);
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplate.execute("CREATE TABLE accounts (id BIGINT PRIMARY KEY, balance DECIMAL(19, 2), version BIGINT)");
+            jdbcTemplate.execute("CREATE TABLE bank_counters (bank_id BIGINT PRIMARY KEY, total_transfers INT)");
+            jdbcTemplate.update("INSERT INTO accounts SELECT x, 1000.00, 0 FROM SYSTEM_RANGE(1, ?)", accounts);
+            jdbcTemplate.update("INSERT INTO bank_counters VALUES (1, 0)");
+
+            // El snapshot base que escribiría el primer arranque, sin recorrer la tabla
+            Path snapshots = Files.createDirectories(directory.resolve("snapshot"));
+            long writeStart = System.nanoTime();
+            try (BalanceSnapshot.Writer writer = BalanceSnapshot.writer(snapshots.resolve(String.format("snapshot-%020d.bin", 0)), 0)) {
+                for (long id = 1; id <= accounts; id++) {
+                    writer.account(id, 100_000, 2);
+                }
+                writer.finish(new TreeMap<>(Map.of(1L, 0)));
+            }
+            long writeMillis = (System.nanoTime() - writeStart) / 1_000_000;
+
+            TransferJournal journal = new TransferJournal(true, directory.resolve("journal").toString(), 1 << 26);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < TAIL; i++) {
+                journal.append(1L, random.nextLong(1, accounts + 1), random.nextLong(1, accounts + 1), BigDecimal.ONE);
+            }
+            journal.force();
+
+            SnapshotService snapshotService = new SnapshotService(journal, jdbcTemplate, new DataSourceTransactionManager(database),
+                    true, true, snapshots.toString(), 2);
+            long start = System.nanoTime();
+            snapshotService.start();
+            long startMillis = (System.nanoTime() - start) / 1_000_000;
+
+            BalanceSnapshot snapshot = snapshotService.getLatest();
+            long lookupStart = System.nanoTime();
+            long total = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                total += snapshot.balance(random.nextLong(1, accounts + 1)).getUnits();
+            }
+            long lookupNanos = (System.nanoTime() - lookupStart) / LOOKUPS;
+
+            System.out.printf("%,d cuentas: snapshot escrito en %d ms; arranque con %,d registros de cola en %d ms; %d ns por consulta%n",
+                    accounts, writeMillis, journal.getLastSequence(), startMillis, lookupNanos);
+            assertEquals(TAIL, journal.getLastSequence());
+            assertEquals(100_000L * LOOKUPS, total);
+            assertEquals(0, new BigDecimal(accounts).multiply(new BigDecimal("1000"))
+                    .compareTo(jdbcTemplate.queryForObject("SELECT SUM(balance) FROM accounts", BigDecimal.class)));
+            assertEquals(TAIL, jdbcTemplate.queryForObject("SELECT total_transfers FROM bank_counters WHERE bank_id = 1", Integer.class));
+        } finally {
+            database.shutdown();
+        }
+    }
+}
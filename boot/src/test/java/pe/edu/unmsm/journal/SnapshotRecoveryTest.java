@@ -0,0 +1,92 @@
+package pe.edu.unmsm.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.unmsm.Application;
+import pe.edu.unmsm.service.AccountService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos arranques sobre el mismo diario: el segundo parte del último snapshot y solo reaplica la cola.
+ */
+class SnapshotRecoveryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRestartFromSnapshotAndTail() throws IOException {
+        try (ConfigurableApplicationContext context = start("primero")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+            context.getBean(SnapshotService.class).snapshot();
+            accountService.transfer(1L, 1L, 2L, new BigDecimal("50"));
+        }
+        // Se descarta el snapshot del apagado, como si el proceso hubiera caído después del primero
+        List<Path> snapshots = snapshots();
+        assertEquals(2, snapshots.size());
+        Files.delete(snapshots.get(1));
+
+        try (ConfigurableApplicationContext context = start("segundo")) {
+            SnapshotService snapshotService = context.getBean(SnapshotService.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            assertEquals(1, snapshotService.getLatest().getSequence());
+            assertEquals(0, new BigDecimal("850").compareTo(balance(jdbcTemplate, 1L)));
+            assertEquals(0, new BigDecimal("2150").compareTo(balance(jdbcTemplate, 2L)));
+            assertEquals(2, jdbcTemplate.queryForObject("SELECT total_transfers FROM bank_counters WHERE bank_id = 1", Integer.class));
+
+            context.getBean(AccountService.class).transfer(1L, 2L, 1L, new BigDecimal("10"));
+            assertEquals(0, new BigDecimal("860").compareTo(balance(jdbcTemplate, 1L)));
+            assertEquals(0, new BigDecimal("2140").compareTo(balance(jdbcTemplate, 2L)));
+        }
+    }
+
+    @Test
+    void testRestartWithoutTail() {
+        try (ConfigurableApplicationContext context = start("antes")) {
+            context.getBean(AccountService.class).transfer(1L, 1L, 2L, new BigDecimal("100"));
+            context.getBean(SnapshotService.class).snapshot();
+        }
+
+        // La cola está vacía: los saldos salen de las cuentas modificadas que lista el snapshot
+        try (ConfigurableApplicationContext context = start("despues")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            assertEquals(2, context.getBean(SnapshotService.class).getLatest().getChangedCount());
+            assertEquals(0, new BigDecimal("900").compareTo(balance(jdbcTemplate, 1L)));
+            assertEquals(0, new BigDecimal("2100").compareTo(balance(jdbcTemplate, 2L)));
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT total_transfers FROM bank_counters WHERE bank_id = 1", Integer.class));
+        }
+    }
+
+    private ConfigurableApplicationContext start(String name) {
+        // Como argumentos, para que tengan prioridad sobre application.yml
+        return new SpringApplicationBuilder(Application.class).run("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:recovery-" + name,
+                "--app.transfer.mode=sequenced",
+                "--app.journal.enabled=true",
+                "--app.journal.replay-on-startup=true",
+                "--app.journal.dir=" + directory.resolve("journal"),
+                "--app.snapshot.enabled=true",
+                "--app.snapshot.dir=" + directory.resolve("snapshot"));
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("snapshot"))) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static BigDecimal balance(JdbcTemplate jdbcTemplate, Long accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
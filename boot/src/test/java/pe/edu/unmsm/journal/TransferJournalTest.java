@@ -0,0 +1,181 @@
+package pe.edu.unmsm.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplayInOrder() {
+        TransferJournal journal = journal(1 << 20);
+
+        assertEquals(1, journal.append(1L, 1L, 2L, new BigDecimal("100.50")));
+        assertEquals(2, journal.append(1L, 2L, 1L, new BigDecimal("7")));
+
+        List<JournalRecord> records = new ArrayList<>();
+        assertEquals(2, journal.replay(0, records::add));
+        assertEquals(2, records.size());
+        JournalRecord first = records.get(0);
+        assertEquals(1, first.sequence());
+        assertEquals(1L, first.bankId());
+        assertEquals(1L, first.sourceAccountId());
+        assertEquals(2L, first.targetAccountId());
+        assertEquals(new BigDecimal("100.50"), first.amount());
+        assertEquals(new BigDecimal("7"), records.get(1).amount());
+    }
+
+    @Test
+    void testReopenContinuesSequence() {
+        TransferJournal journal = journal(1 << 20);
+        journal.append(1L, 1L, 2L, BigDecimal.TEN);
+        journal.append(1L, 1L, 2L, BigDecimal.TEN);
+        journal.force();
+
+        TransferJournal reopened = journal(1 << 20);
+        assertEquals(2, reopened.getLastSequence());
+        assertEquals(3, reopened.append(1L, 2L, 1L, BigDecimal.ONE));
+        assertEquals(3, reopened.replay(0, record -> {}));
+    }
+
+    @Test
+    void testSegmentsRoll() throws IOException {
+        TransferJournal journal = journal(TransferJournal.RECORD_SIZE * 4);
+        for (int i = 0; i < 10; i++) {
+            journal.append(1L, 1L, 2L, BigDecimal.ONE);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        List<Long> sequences = new ArrayList<>();
+        journal.replay(5, record -> sequences.add(record.sequence()));
+        assertEquals(List.of(6L, 7L, 8L, 9L, 10L), sequences);
+        assertEquals(10, journal(TransferJournal.RECORD_SIZE * 4).getLastSequence());
+    }
+
+    @Test
+    void testCorruptTailIsIgnored() throws IOException {
+        TransferJournal journal = journal(1 << 20);
+        for (int i = 0; i < 5; i++) {
+            journal.append(1L, 1L, 2L, BigDecimal.ONE);
+        }
+        journal.force();
+
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(String.format("journal-%020d.log", 1)).toFile(), "rw")) {
+            file.seek(3L * TransferJournal.RECORD_SIZE + 40);
+            file.write(0x7f);
+        }
+
+        TransferJournal reopened = journal(1 << 20);
+        assertEquals(3, reopened.getLastSequence());
+        assertEquals(4, reopened.append(1L, 2L, 1L, BigDecimal.ONE));
+        List<Long> sequences = new ArrayList<>();
+        reopened.replay(0, record -> sequences.add(record.sequence()));
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences);
+    }
+
+    @Test
+    void testPruneKeepsSegmentsAfterSequence() throws IOException {
+        TransferJournal journal = journal(TransferJournal.RECORD_SIZE * 4);
+        for (int i = 0; i < 10; i++) {
+            journal.append(1L, 1L, 2L, BigDecimal.ONE);
+        }
+
+        assertEquals(1, journal.prune(6));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        List<Long> sequences = new ArrayList<>();
+        journal.replay(6, record -> sequences.add(record.sequence()));
+        assertEquals(List.of(7L, 8L, 9L, 10L), sequences);
+        assertThrows(IllegalStateException.class, () -> journal.replay(0, record -> {}));
+        // El segmento actual nunca se borra
+        assertEquals(1, journal.prune(10));
+        assertEquals(11, journal.append(1L, 1L, 2L, BigDecimal.ONE));
+    }
+
+    @Test
+    void testCancelAppendsReversal() {
+        TransferJournal journal = journal(1 << 20);
+        journal.record(1L, 1L, 2L, new BigDecimal("5.50"));
+        journal.cancel(1L, 1L, 2L, new BigDecimal("5.50"));
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(0, records::add);
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).transfers());
+        assertEquals(-1, records.get(1).transfers());
+        assertEquals(new BigDecimal("-5.50"), records.get(1).amount());
+    }
+
+    @Test
+    void testOneForceCoversTheGroup() throws Exception {
+        // El primero espera hasta 10 s a que lleguen los 8 registros del grupo: con uno por hilo solo
+        // termina antes si un mismo force los cubre a todos
+        TransferJournal journal = new TransferJournal(true, directory.toString(), 1 << 20, 8, 10_000_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> journal.record(1L, 1L, 2L, BigDecimal.ONE)));
+            }
+            for (Future<?> future : futures) {
+                future.get(20, TimeUnit.SECONDS);
+            }
+
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+            assertEquals(8, journal.getForcedSequence());
+            assertEquals(1, journal.getForceCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testForceAfterMaxWait() {
+        TransferJournal journal = new TransferJournal(true, directory.toString(), 1 << 20, 100, 50_000);
+
+        long start = System.nanoTime();
+        journal.record(1L, 1L, 2L, BigDecimal.ONE);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, journal.getForcedSequence());
+        assertEquals(1, journal.getForceCount());
+        journal.force();
+        assertEquals(1, journal.getForceCount());
+    }
+
+    @Test
+    void testDisabledJournalWritesNothing() throws IOException {
+        TransferJournal journal = new TransferJournal(false, directory.toString(), 1 << 20);
+        journal.record(1L, 1L, 2L, BigDecimal.ONE);
+
+        assertFalse(journal.isEnabled());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, () -> journal.append(1L, 1L, 2L, BigDecimal.ONE));
+    }
+
+    private TransferJournal journal(int segmentSize) {
+        return new TransferJournal(true, directory.toString(), segmentSize);
+    }
+}
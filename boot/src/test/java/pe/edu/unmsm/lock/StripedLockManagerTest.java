@@ -0,0 +1,118 @@
+package pe.edu.unmsm.lock;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.service.AccountService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:striped",
+        "app.transfer.mode=optimistic",
+        "app.transfer.retry.max-attempts=1"
+})
+class StripedLockManagerTest {
+    private static final int ACCOUNTS = 100;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS = 5_000;
+    private static final int LOAD_TRANSFERS = Integer.getInteger("striped.transfers", 1_000_000);
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    StripedLockManager lockManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testStripesAreOrdered() {
+        StripedLockManager lockManager = new StripedLockManager(16);
+
+        assertEquals(16, lockManager.getStripeCount());
+        assertEquals(lockManager.stripeOf(3L), lockManager.stripeOf(19L));
+        assertEquals(0, lockManager.stripeOf(null));
+        assertEquals("ok", lockManager.callLocked(5L, 5L, () -> "ok"));
+        assertEquals(1, lockManager.getAcquisitions());
+    }
+
+    @Test
+    void testMoneyIsConserved() {
+        assertMoneyIsConserved(TRANSFERS, Duration.ofSeconds(120));
+    }
+
+    /**
+     * La misma comprobación con 10^6 transferencias. Se ejecuta con {@code mvn test -Dload=true};
+     * {@code -Dstriped.transfers} cambia el número de transferencias.
+     */
+    @Test
+    @Tag("load")
+    @EnabledIfSystemProperty(named = "load", matches = "true")
+    void testMoneyIsConservedUnderLoad() {
+        assertMoneyIsConserved(LOAD_TRANSFERS, Duration.ofHours(2));
+    }
+
+    private void assertMoneyIsConserved(int transfers, Duration timeout) {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(new Account(null, "Cuenta " + i, INITIAL_BALANCE));
+        }
+        accountService.saveAll(accounts.iterator());
+        List<Long> ids = accounts.stream().map(Account::getId).toList();
+        BigDecimal total = totalBalance();
+        long acquisitions = lockManager.getAcquisitions();
+
+        // Sin reintentos, un conflicto de versión llegaría hasta aquí: solo los stripes evitan que dos
+        // transferencias sobre la misma cuenta se crucen
+        assertTimeoutPreemptively(timeout, () -> {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = IntStream.range(0, THREADS)
+                    .<Future<?>>mapToObj(thread -> executor.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < transfers / THREADS; i++) {
+                            Long source = ids.get(random.nextInt(ACCOUNTS));
+                            Long target = ids.get(random.nextInt(ACCOUNTS));
+                            try {
+                                accountService.transfer(1L, source, target, BigDecimal.valueOf(random.nextLong(1, 100)));
+                            } catch (InsufficientMoneyException e) {
+                                // El saldo no alcanza: la transferencia no mueve nada
+                            }
+                        }
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        });
+
+        assertEquals(0, total.compareTo(totalBalance()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE balance < 0", Integer.class));
+        assertTrue(lockManager.getAcquisitions() - acquisitions >= transfers / THREADS * THREADS);
+        for (int stripe = 0; stripe < lockManager.getStripeCount(); stripe++) {
+            assertEquals(0, lockManager.getQueueLength(stripe));
+        }
+    }
+
+    private BigDecimal totalBalance() {
+        return jdbcTemplate.queryForObject("SELECT SUM(balance) FROM accounts", BigDecimal.class);
+    }
+}
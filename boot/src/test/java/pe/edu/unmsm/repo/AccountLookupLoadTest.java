@@ -0,0 +1,78 @@
+package pe.edu.unmsm.repo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Latencia de búsqueda por titular con 10^4, 10^6 y 10^7 filas. Se ejecuta con {@code mvn test -Dload=true}.
+ * 10^7 filas en H2 en memoria necesitan más de 6 GB de heap ({@code -DargLine=-Xmx8g}); con
+ * {@code -Dlookup.rows=10000,1000000} se limita a los tamaños menores.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load", matches = "true")
+@SpringBootTest
+class AccountLookupLoadTest {
+    private static final int LOOKUPS = 2_000;
+
+    @Autowired
+    AccountRepo accountRepo;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM accounts WHERE id > 2");
+    }
+
+    static IntStream rows() {
+        return Arrays.stream(System.getProperty("lookup.rows", "10000,1000000,10000000").split(","))
+                .mapToInt(rows -> Integer.parseInt(rows.trim()));
+    }
+
+    @ParameterizedTest(name = "{0} filas")
+    @MethodSource("rows")
+    void testLookupLatency(int rows) {
+        jdbcTemplate.update("INSERT INTO accounts(id, person, person_normalized, balance, version) " +
+                "SELECT NEXT VALUE FOR accounts_seq, 'Cliente ' || X, 'cliente ' || X, 1000, 0 FROM SYSTEM_RANGE(1, ?)", rows);
+
+        measure(rows, "findByPerson", i -> assertEquals("Cliente " + i, accountRepo.findByPerson("Cliente " + i).orElseThrow().getPerson()));
+        measure(rows, "findAllByPersonIgnoreCase", i -> assertEquals(1, accountRepo.findAllByPersonIgnoreCase("CLIENTE " + i).size()));
+        int scans = rows > 1_000_000 ? 5 : 50;
+        measure(rows, "LOWER(person) sin índice", scans, i -> assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accounts WHERE LOWER(person) = ?", Integer.class, "cliente " + i)));
+    }
+
+    private void measure(int rows, String name, IntConsumer lookup) {
+        measure(rows, name, LOOKUPS, lookup);
+    }
+
+    private void measure(int rows, String name, int lookups, IntConsumer lookup) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < Math.min(lookups, 200); i++) lookup.accept(1 + random.nextInt(rows));
+
+        long[] latencies = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            int person = 1 + random.nextInt(rows);
+            long begin = System.nanoTime();
+            lookup.accept(person);
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%,11d filas %-26s p50 %9.3f ms, p99 %9.3f ms%n", rows, name,
+                latencies[lookups / 2] / 1e6, latencies[lookups * 99 / 100] / 1e6);
+    }
+}
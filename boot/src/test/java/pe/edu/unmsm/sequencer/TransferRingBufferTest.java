@@ -0,0 +1,67 @@
+package pe.edu.unmsm.sequencer;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferRingBufferTest {
+    @Test
+    void testOfferAndDrainInOrder() {
+        TransferRingBuffer ringBuffer = new TransferRingBuffer(4);
+        for (long i = 0; i < 4; i++) assertTrue(ringBuffer.offer(TransferRequest.invalidation(i)));
+        assertFalse(ringBuffer.offer(TransferRequest.invalidation(4L)));
+        assertEquals(4, ringBuffer.size());
+
+        List<TransferRequest> requests = new ArrayList<>();
+        assertEquals(3, ringBuffer.drainTo(requests, 3));
+        assertTrue(ringBuffer.offer(TransferRequest.invalidation(4L)));
+        assertEquals(2, ringBuffer.drainTo(requests, 10));
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), requests.stream().map(TransferRequest::sourceAccountId).toList());
+        assertTrue(ringBuffer.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new TransferRingBuffer(3));
+    }
+
+    @Test
+    void testManyProducersOneConsumer() {
+        int producers = 4;
+        int perProducer = 100_000;
+        TransferRingBuffer ringBuffer = new TransferRingBuffer(1024);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        TransferRequest request = new TransferRequest(producer, (long) i, null, BigDecimal.ONE, null);
+                        while (!ringBuffer.offer(request)) Thread.onSpinWait();
+                    }
+                });
+            }
+
+            long[] next = new long[producers];
+            List<TransferRequest> requests = new ArrayList<>();
+            int received = 0;
+            while (received < producers * perProducer) {
+                requests.clear();
+                received += ringBuffer.drainTo(requests, 256);
+                for (TransferRequest request : requests) {
+                    int producer = request.bankId().intValue();
+                    assertEquals(next[producer]++, request.sourceAccountId());
+                }
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(ringBuffer.isEmpty());
+        });
+    }
+}
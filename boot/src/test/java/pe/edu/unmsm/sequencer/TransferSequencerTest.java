@@ -0,0 +1,203 @@
+package pe.edu.unmsm.sequencer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.journal.SnapshotService;
+import pe.edu.unmsm.journal.TransferJournal;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.model.Bank;
+import pe.edu.unmsm.repo.AccountRepo;
+import pe.edu.unmsm.repo.BankRepo;
+import pe.edu.unmsm.service.TransferCounter;
+import pe.edu.unmsm.service.TransferMode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransferSequencerTest {
+    AccountRepo accountRepo;
+    BankRepo bankRepo;
+    TransferCounter transferCounter;
+    TransferJournal journal;
+    TransferSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        accountRepo = mock(AccountRepo.class);
+        bankRepo = mock(BankRepo.class);
+        transferCounter = mock(TransferCounter.class);
+        journal = mock(TransferJournal.class);
+        sequencer = new TransferSequencer(accountRepo, bankRepo, transferCounter, journal,
+                mock(SnapshotService.class), new ConcurrentMapCacheManager(), mock(PlatformTransactionManager.class),
+                1024, 100, 1000, TransferMode.SEQUENCED);
+
+        when(accountRepo.findAllById(any())).thenReturn(List.of(
+                new Account(1L, "Paul", new BigDecimal("1000.00")),
+                new Account(2L, "Fernando", new BigDecimal("2000.00"))));
+        when(bankRepo.findAllById(any())).thenReturn(List.of(new Bank(1L, "Banco Financiero")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.stop();
+    }
+
+    @Test
+    void testTransfersAreCommitted() {
+        sequencer.start();
+
+        List<CompletableFuture<Void>> futures = List.of(
+                sequencer.submit(1L, 1L, 2L, new BigDecimal("100")),
+                sequencer.submit(1L, 2L, 1L, new BigDecimal("50")),
+                sequencer.submit(1L, 1L, 2L, new BigDecimal("100")));
+        futures.forEach(CompletableFuture::join);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, BigDecimal>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(accountRepo, atLeastOnce()).applyBalanceDeltas(deltas.capture());
+        BigDecimal source = deltas.getAllValues().stream().map(map -> map.getOrDefault(1L, BigDecimal.ZERO)).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal target = deltas.getAllValues().stream().map(map -> map.getOrDefault(2L, BigDecimal.ZERO)).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal("-150").compareTo(source));
+        assertEquals(0, new BigDecimal("150").compareTo(target));
+        verify(transferCounter, atLeastOnce()).increment(eq(1L), anyInt());
+        verify(accountRepo, times(1)).findAllById(any());
+    }
+
+    @Test
+    void testRejectedTransfersDoNotChangeBalances() {
+        sequencer.start();
+
+        CompletionException insufficient = assertThrows(CompletionException.class,
+                () -> sequencer.submit(1L, 1L, 2L, new BigDecimal("1000.01")).join());
+        CompletionException unknownAccount = assertThrows(CompletionException.class,
+                () -> sequencer.submit(1L, 1L, 9L, new BigDecimal("100")).join());
+        CompletionException unknownBank = assertThrows(CompletionException.class,
+                () -> sequencer.submit(9L, 1L, 2L, new BigDecimal("100")).join());
+        CompletionException invalidAmount = assertThrows(CompletionException.class,
+                () -> sequencer.submit(1L, 1L, 2L, BigDecimal.ZERO).join());
+        sequencer.submit(1L, 1L, 2L, new BigDecimal("1000")).join();
+
+        assertInstanceOf(InsufficientMoneyException.class, insufficient.getCause());
+        assertEquals("Cuenta no encontrada", unknownAccount.getCause().getMessage());
+        assertInstanceOf(NoSuchElementException.class, unknownBank.getCause());
+        assertEquals("Monto inválido", invalidAmount.getCause().getMessage());
+        verify(accountRepo).applyBalanceDeltas(Map.of(1L, new BigDecimal("-1000"), 2L, new BigDecimal("1000")));
+    }
+
+    @Test
+    void testFailedCommitReloadsBalances() {
+        doThrow(new NoSuchElementException("Cuenta no encontrada"))
+                .doNothing()
+                .when(accountRepo).applyBalanceDeltas(any());
+        sequencer.start();
+
+        assertThrows(CompletionException.class, () -> sequencer.submit(1L, 1L, 2L, new BigDecimal("600")).join());
+        sequencer.submit(1L, 1L, 2L, new BigDecimal("600")).join();
+
+        verify(accountRepo, times(2)).findAllById(any());
+        verify(accountRepo, times(2)).applyBalanceDeltas(Map.of(1L, new BigDecimal("-600"), 2L, new BigDecimal("600")));
+    }
+
+    @Test
+    void testJournalFailureRollsBackTheBatch() {
+        doThrow(new IllegalStateException("Disco lleno"))
+                .doNothing()
+                .when(journal).record(any(), any(), any(), any());
+        sequencer.start();
+
+        assertThrows(CompletionException.class, () -> sequencer.submit(1L, 1L, 2L, new BigDecimal("100")).join());
+        sequencer.submit(1L, 1L, 2L, new BigDecimal("100")).join();
+
+        // Sin diario no hay commit: el libro se descarta y los saldos se vuelven a leer
+        verify(accountRepo, times(2)).findAllById(any());
+    }
+
+    @Test
+    void testOverflowingCreditLeavesSourceUntouched() {
+        when(accountRepo.findAllById(any())).thenReturn(List.of(
+                new Account(1L, "Paul", new BigDecimal("1000.00")),
+                new Account(2L, "Fernando", BigDecimal.valueOf(Long.MAX_VALUE, 2)),
+                new Account(3L, "Pepe", new BigDecimal("0.00"))));
+        sequencer.start();
+
+        CompletionException overflow = assertThrows(CompletionException.class,
+                () -> sequencer.submit(1L, 1L, 2L, new BigDecimal("100")).join());
+        // Solo pasa si el débito de la transferencia fallida no quedó en el libro
+        sequencer.submit(1L, 1L, 3L, new BigDecimal("1000")).join();
+
+        assertInstanceOf(ArithmeticException.class, overflow.getCause());
+        verify(accountRepo).applyBalanceDeltas(Map.of(1L, new BigDecimal("-1000"), 3L, new BigDecimal("1000")));
+        verify(accountRepo, times(1)).applyBalanceDeltas(any());
+    }
+
+    @Test
+    void testInvalidateReloadsBalance() {
+        sequencer.start();
+        sequencer.submit(1L, 1L, 2L, new BigDecimal("100")).join();
+
+        sequencer.invalidate(1L);
+        sequencer.submit(1L, 1L, 2L, new BigDecimal("100")).join();
+
+        verify(accountRepo, times(2)).findAllById(any());
+    }
+
+    @Test
+    void testSubmitRacingStopIsCompleted() throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                sequencer.start();
+                CountDownLatch started = new CountDownLatch(4);
+                List<Future<List<CompletableFuture<Void>>>> submitted = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    submitted.add(producers.submit(() -> {
+                        List<CompletableFuture<Void>> futures = new ArrayList<>();
+                        started.countDown();
+                        for (int j = 0; j < 200; j++) futures.add(sequencer.submit(1L, 1L, 2L, BigDecimal.ONE));
+                        return futures;
+                    }));
+                }
+                started.await();
+                sequencer.stop();
+
+                // Cada solicitud termina, confirmada o con error; ninguna queda esperando para siempre
+                for (Future<List<CompletableFuture<Void>>> producer : submitted) {
+                    for (CompletableFuture<Void> future : producer.get(5, TimeUnit.SECONDS)) {
+                        future.handle((result, error) -> null).get(5, TimeUnit.SECONDS);
+                    }
+                }
+            }
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSubmitWhenStopped() {
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> sequencer.submit(1L, 1L, 2L, BigDecimal.ONE).join());
+
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        assertFalse(sequencer.isRunning());
+    }
+}
@@ -0,0 +1,77 @@
+package pe.edu.unmsm.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.unmsm.model.Account;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Alta de 10^6 cuentas fila a fila con {@code save} y por lotes con {@code saveAll}, contando las
+ * sentencias JDBC que prepara Hibernate (una por lote con batching). Se ejecuta con
+ * {@code mvn test -Dload=true}; {@code -Dbulk.accounts} cambia el número de cuentas.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load", matches = "true")
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.sql=off"})
+class AccountBulkLoadTest {
+    private static final int ACCOUNTS = Integer.getInteger("bulk.accounts", 1_000_000);
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        // Por partes: H2 guarda en memoria el deshacer de toda la transacción
+        while (jdbcTemplate.update("DELETE FROM accounts WHERE id > 2 FETCH FIRST 100000 ROWS ONLY") > 0) ;
+    }
+
+    @Test
+    void testRowByRowAgainstBulk() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        accounts().forEachRemaining(accountService::save);
+        report("save fila a fila", start, statistics);
+
+        statistics.clear();
+        start = System.nanoTime();
+        assertEquals(ACCOUNTS, accountService.saveAll(accounts()).created());
+        report("saveAll por lotes", start, statistics);
+
+        assertEquals(2L * ACCOUNTS + 2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class));
+    }
+
+    private static Iterator<Account> accounts() {
+        return IntStream.range(0, ACCOUNTS)
+                .mapToObj(i -> new Account(null, "Cliente " + i, new BigDecimal("1000")))
+                .iterator();
+    }
+
+    private static void report(String name, long start, Statistics statistics) {
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%,d cuentas, %-18s %,7d ms, %,8.0f cuentas/s, %,9d sentencias preparadas, %,7d transacciones%n",
+                ACCOUNTS, name, millis, ACCOUNTS * 1000.0 / Math.max(1, millis),
+                statistics.getPrepareStatementCount(), statistics.getTransactionCount());
+    }
+}
@@ -0,0 +1,76 @@
+package pe.edu.unmsm.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.unmsm.dto.AccountBulkResultDto;
+import pe.edu.unmsm.model.Account;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:bulk", "app.account.bulk.chunk-size=2"})
+class AccountBulkTest {
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM accounts WHERE id > 2");
+    }
+
+    @Test
+    void testFailedChunkReportsWhereToResume() {
+        // El titular de la cuarta cuenta no cabe en la columna: falla el segundo lote, el primero ya está confirmado
+        AccountBulkResultDto result = accountService.saveAll(List.of(
+                new Account(null, "Ana", new BigDecimal("10")),
+                new Account(null, "Beto", new BigDecimal("20")),
+                new Account(null, "Carla", new BigDecimal("30")),
+                new Account(null, "D".repeat(300), new BigDecimal("40")),
+                new Account(null, "Elena", new BigDecimal("50"))).iterator());
+
+        assertFalse(result.isComplete());
+        assertEquals(2, result.created());
+        assertEquals(2, result.failedAt());
+        assertNotNull(result.message());
+        assertEquals(List.of("Ana", "Beto"), createdPeople());
+    }
+
+    @Test
+    void testUnreadableAccountReportsWhereToResume() {
+        Iterator<Account> accounts = new Iterator<>() {
+            int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Account next() {
+                if (next == 3) throw new IllegalArgumentException("JSON inválido en la cuenta 3");
+                return new Account(null, "Cliente " + next++, new BigDecimal("10"));
+            }
+        };
+
+        AccountBulkResultDto result = accountService.saveAll(accounts);
+
+        // La cuenta 2 estaba en el lote aún sin confirmar
+        assertEquals(2, result.created());
+        assertEquals(2, result.failedAt());
+        assertEquals("JSON inválido en la cuenta 3", result.message());
+        assertEquals(List.of("Cliente 0", "Cliente 1"), createdPeople());
+    }
+
+    private List<String> createdPeople() {
+        return jdbcTemplate.queryForList("SELECT person FROM accounts WHERE id > 2 ORDER BY id", String.class);
+    }
+}
@@ -0,0 +1,56 @@
+package pe.edu.unmsm.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.unmsm.model.Money;
+import pe.edu.unmsm.repo.AccountRepo;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+class AccountCacheTest {
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    AccountRepo accountRepo;
+
+    @Test
+    void testBalanceReadDuringTransferIsNotCachedStale() throws Exception {
+        BigDecimal before = accountRepo.findBalanceById(1L).orElseThrow().toBigDecimal();
+        // La lectura toma el saldo anterior y no lo devuelve hasta que la transferencia termina. Con la
+        // corrección la transferencia espera a la lectura para desalojarla, de ahí el tiempo límite
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch transferred = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            Money balance = Money.of(jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, id));
+            read.countDown();
+            transferred.await(2, TimeUnit.SECONDS);
+            return Optional.of(balance);
+        }).when(accountRepo).findBalanceById(any());
+
+        CompletableFuture<BigDecimal> reader = CompletableFuture.supplyAsync(() -> accountService.getBalance(1L));
+        assertTrue(read.await(10, TimeUnit.SECONDS));
+        accountService.transfer(1L, 1L, 2L, new BigDecimal("10"));
+        transferred.countDown();
+
+        assertEquals(0, before.compareTo(reader.get(10, TimeUnit.SECONDS)));
+        assertEquals(0, before.subtract(new BigDecimal("10")).compareTo(accountService.getBalance(1L)));
+        accountService.transfer(1L, 2L, 1L, new BigDecimal("10"));
+    }
+}
@@ -0,0 +1,119 @@
+package pe.edu.unmsm.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pe.edu.unmsm.dto.AsyncTransferDto;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+
+import java.math.BigDecimal;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AsyncTransferServiceTest {
+    AccountService accountService = mock(AccountService.class);
+
+    // Un hilo y una cola de una sola transferencia
+    AsyncTransferService asyncTransferService = new AsyncTransferService(accountService, 1, 1, "maximumSize=100", 5000);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncTransferService.shutdown();
+    }
+
+    @Test
+    void testQueueFullIsRejected() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(accountService).transfer(any(), any(), any(), any());
+
+        AsyncTransferDto first = asyncTransferService.submit(transaction("10"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        AsyncTransferDto second = asyncTransferService.submit(transaction("20"));
+
+        assertEquals(AsyncTransferDto.RUNNING, asyncTransferService.status(first.id()).status());
+        assertEquals(AsyncTransferDto.PENDING, asyncTransferService.status(second.id()).status());
+        assertEquals(1, asyncTransferService.queued());
+        assertThrows(RejectedExecutionException.class, () -> asyncTransferService.submit(transaction("30")));
+
+        release.countDown();
+        assertEquals(AsyncTransferDto.OK, await(first.id()).status());
+        assertEquals(AsyncTransferDto.OK, await(second.id()).status());
+        verify(accountService, times(2)).transfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFailedTransfer() throws Exception {
+        doThrow(new InsufficientMoneyException("Dinero insuficiente en la cuenta"))
+                .when(accountService).transfer(any(), any(), any(), any());
+
+        AsyncTransferDto status = await(asyncTransferService.submit(transaction("10")).id());
+
+        assertEquals(AsyncTransferDto.ERROR, status.status());
+        assertEquals("Dinero insuficiente en la cuenta", status.message());
+    }
+
+    @Test
+    void testQueuedTransferFailsOnShutdown() throws Exception {
+        AsyncTransferService asyncTransferService = new AsyncTransferService(accountService, 1, 1, "maximumSize=100", 10);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // shutdownNow interrumpe la transferencia en curso
+            }
+            return null;
+        }).when(accountService).transfer(any(), any(), any(), any());
+
+        asyncTransferService.submit(transaction("10"));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        AsyncTransferDto second = asyncTransferService.submit(transaction("20"));
+        asyncTransferService.shutdown();
+        release.countDown();
+
+        AsyncTransferDto status = asyncTransferService.status(second.id());
+        assertEquals(AsyncTransferDto.ERROR, status.status());
+        assertEquals("Transferencia cancelada por el apagado del servidor", status.message());
+        verify(accountService, times(1)).transfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void testInvalidRequest() {
+        assertThrows(IllegalArgumentException.class, () -> asyncTransferService.submit(transaction("0")));
+        assertThrows(IllegalArgumentException.class, () -> asyncTransferService.submit(new TransactionDto()));
+        assertThrows(NoSuchElementException.class, () -> asyncTransferService.status("desconocida"));
+        verifyNoInteractions(accountService);
+    }
+
+    private AsyncTransferDto await(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        AsyncTransferDto status = asyncTransferService.status(id);
+        while (!status.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            status = asyncTransferService.status(id);
+        }
+        return status;
+    }
+
+    private static TransactionDto transaction(String amount) {
+        TransactionDto dto = new TransactionDto();
+        dto.setBankId(1L);
+        dto.setSourceAccountId(1L);
+        dto.setTargetAccountId(2L);
+        dto.setAmount(new BigDecimal(amount));
+        return dto;
+    }
+}
@@ -0,0 +1,154 @@
+package pe.edu.unmsm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.repo.IdempotencyKeyRepo;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+    @Autowired
+    IdempotencyService idempotencyService;
+
+    @Autowired
+    IdempotencyKeyRepo idempotencyKeyRepo;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void testRetryIsAnsweredFromMemory() {
+        AtomicInteger transfers = new AtomicInteger();
+        Supplier<ResponseEntity<Map<String, Object>>> transfer = () -> response(transfers.incrementAndGet());
+
+        ResponseEntity<Object> first = idempotencyService.execute("memoria", transaction("100"), transfer);
+        ResponseEntity<Object> retry = idempotencyService.execute("memoria", transaction("100.00"), transfer);
+
+        assertEquals(1, transfers.get());
+        assertSame(first, retry);
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+    }
+
+    @Test
+    void testRetryIsAnsweredFromDatabase() {
+        AtomicInteger transfers = new AtomicInteger();
+        idempotencyService.execute("base-de-datos", transaction("100"), () -> response(transfers.incrementAndGet()));
+
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyKeyRepo, objectMapper, transactionManager,
+                "maximumSize=100", 86_400_000);
+        ResponseEntity<Object> retry = otherInstance.execute("base-de-datos", transaction("100"),
+                () -> response(transfers.incrementAndGet()));
+
+        assertEquals(1, transfers.get());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(1, ((Map<?, ?>) retry.getBody()).get("transfer"));
+    }
+
+    @Test
+    void testPendingKeyIsAConflict() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                idempotencyKeyRepo.claim("pendiente", "", Instant.now()));
+
+        ResponseEntity<Object> response = idempotencyService.execute("pendiente", transaction("100"),
+                () -> fail("No debe transferir"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void testKeyReusedForAnotherTransfer() {
+        idempotencyService.execute("otra", transaction("100"), () -> response(1));
+
+        ResponseEntity<Object> response = idempotencyService.execute("otra", transaction("200"),
+                () -> fail("No debe transferir"));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
+    @Test
+    void testFailedTransferReleasesTheKey() {
+        assertThrows(InsufficientMoneyException.class, () -> idempotencyService.execute("fallida", transaction("100"), () -> {
+            throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
+        }));
+        assertFalse(idempotencyKeyRepo.existsById("fallida"));
+
+        ResponseEntity<Object> response = idempotencyService.execute("fallida", transaction("100"), () -> response(1));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void testFailureAfterCommitKeepsTheKey() {
+        ResponseEntity<Object> first = idempotencyService.execute("desconocida", transaction("100"), () -> {
+            throw new IllegalStateException("El diario no respondió");
+        });
+        ResponseEntity<Object> retry = idempotencyService.execute("desconocida", transaction("100"),
+                () -> fail("No debe transferir"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, first.getStatusCode());
+        assertSame(first, retry);
+        assertEquals(500, idempotencyKeyRepo.findById("desconocida").orElseThrow().getStatus());
+    }
+
+    @Test
+    void testFailedCompleteIsRetried() {
+        IdempotencyKeyRepo repo = mock(IdempotencyKeyRepo.class);
+        when(repo.complete(any(), anyInt(), any()))
+                .thenThrow(new CannotCreateTransactionException("Sin conexión"))
+                .thenReturn(1);
+        IdempotencyService service = new IdempotencyService(repo, objectMapper, mock(PlatformTransactionManager.class),
+                "maximumSize=100", 86_400_000);
+
+        ResponseEntity<Object> first = service.execute("sin-guardar", transaction("100"), () -> response(1));
+        ResponseEntity<Object> retry = service.execute("sin-guardar", transaction("100"), () -> fail("No debe transferir"));
+        service.saveUnsaved();
+        service.saveUnsaved();
+
+        assertSame(first, retry);
+        verify(repo, times(2)).complete(eq("sin-guardar"), eq(200), any());
+    }
+
+    @Test
+    void testInvalidKey() {
+        assertEquals(HttpStatus.BAD_REQUEST, idempotencyService.execute(" ", transaction("100"), () -> response(1)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, idempotencyService.execute("x".repeat(IdempotencyService.MAX_KEY_LENGTH + 1),
+                transaction("100"), () -> response(1)).getStatusCode());
+    }
+
+    private static TransactionDto transaction(String amount) {
+        TransactionDto dto = new TransactionDto();
+        dto.setBankId(1L);
+        dto.setSourceAccountId(1L);
+        dto.setTargetAccountId(2L);
+        dto.setAmount(new BigDecimal(amount));
+        return dto;
+    }
+
+    private static ResponseEntity<Map<String, Object>> response(int transfer) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", "OK");
+        body.put("transfer", transfer);
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,57 @@
+package pe.edu.unmsm.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pe.edu.unmsm.dto.TransactionDto;
+import pe.edu.unmsm.dto.TransferResultDto;
+import pe.edu.unmsm.exception.InsufficientMoneyException;
+import pe.edu.unmsm.sequencer.TransferSequencer;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.transfer.mode=sequenced")
+class SequencedTransferTest {
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    TransferSequencer sequencer;
+
+    @Test
+    void testTransfer() {
+        assertTrue(sequencer.isRunning());
+        BigDecimal source = accountService.getBalance(1L);
+        BigDecimal target = accountService.getBalance(2L);
+
+        accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        assertThrows(InsufficientMoneyException.class, () -> accountService.transfer(1L, 1L, 2L, new BigDecimal("1000000")));
+
+        assertEquals(0, source.subtract(new BigDecimal("100")).compareTo(accountService.getBalance(1L)));
+        assertEquals(0, target.add(new BigDecimal("100")).compareTo(accountService.getBalance(2L)));
+    }
+
+    @Test
+    void testTransferAll() {
+        List<TransferResultDto> results = accountService.transferAll(List.of(
+                transaction(1L, 2L, "10"),
+                transaction(1L, 9L, "10"),
+                transaction(2L, 1L, "10")).iterator());
+
+        assertEquals("OK", results.get(0).status());
+        assertEquals("Cuenta no encontrada", results.get(1).message());
+        assertEquals("OK", results.get(2).status());
+    }
+
+    private static TransactionDto transaction(Long source, Long target, String amount) {
+        TransactionDto dto = new TransactionDto();
+        dto.setBankId(1L);
+        dto.setSourceAccountId(source);
+        dto.setTargetAccountId(target);
+        dto.setAmount(new BigDecimal(amount));
+        return dto;
+    }
+}
@@ -0,0 +1,213 @@
+package pe.edu.unmsm.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import pe.edu.unmsm.aspect.TransferRetryAspect;
+import pe.edu.unmsm.journal.SnapshotService;
+import pe.edu.unmsm.journal.TransferJournal;
+import pe.edu.unmsm.lock.StripedLockManager;
+import pe.edu.unmsm.model.Account;
+import pe.edu.unmsm.repo.AccountRepo;
+import pe.edu.unmsm.repo.BankRepo;
+import pe.edu.unmsm.sequencer.TransferSequencer;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the transfer modes on a few hot (merchant) accounts. Run with {@code mvn test -Dload=true}.
+ * In-process striping is off so every mode competes on the database, as with several instances.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {"app.transfer.lock.enabled=false", "spring.datasource.hikari.maximum-pool-size=64"})
+class TransferModeLoadTest {
+    private static final int ACCOUNTS = 200;
+    private static final int HOT_ACCOUNTS = 2;
+    private static final int TRANSFERS = 4_000;
+
+    @Autowired
+    AccountRepo accountRepo;
+
+    @Autowired
+    BankRepo bankRepo;
+
+    @Autowired
+    StripedLockManager lockManager;
+
+    @Autowired
+    TransferCounter transferCounter;
+
+    @Autowired
+    TransferJournal journal;
+
+    @Autowired
+    SnapshotService snapshots;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    TransferRetryAspect retryAspect;
+
+    @Autowired
+    TransferSequencer idleSequencer;
+
+    List<Long> accountIds;
+    TransferSequencer runningSequencer;
+
+    @BeforeAll
+    void setUp() {
+        accountIds = accountRepo.saveAll(IntStream.range(0, ACCOUNTS)
+                        .mapToObj(i -> new Account(null, "Cliente " + i, new BigDecimal("1000000")))
+                        .toList())
+                .stream()
+                .map(Account::getId)
+                .toList();
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (runningSequencer != null) runningSequencer.stop();
+    }
+
+    static Stream<Arguments> scenarios() {
+        return Arrays.stream(TransferMode.values())
+                .flatMap(mode -> IntStream.of(2, 8, 32, 128).mapToObj(threads -> Arguments.of(mode, threads)));
+    }
+
+    @ParameterizedTest(name = "{0} con {1} hilos")
+    @MethodSource("scenarios")
+    void testThroughput(TransferMode mode, int threads) throws InterruptedException {
+        AccountService accountService = serviceFor(mode);
+        BigDecimal totalBefore = totalBalance();
+        long[] latencies = new long[TRANSFERS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = next.getAndIncrement(); i < TRANSFERS; i = next.getAndIncrement()) {
+                    Long target = accountIds.get(i % HOT_ACCOUNTS);
+                    Long source = accountIds.get(HOT_ACCOUNTS + random.nextInt(ACCOUNTS - HOT_ACCOUNTS));
+                    long begin = System.nanoTime();
+                    try {
+                        accountService.transfer(1L, source, target, BigDecimal.ONE);
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-11s %3d hilos: %7.0f transferencias/s, p50 %6.2f ms, p99 %7.2f ms, fallidas %d%n",
+                mode, threads, TRANSFERS * 1e9 / elapsed,
+                latencies[TRANSFERS / 2] / 1e6, latencies[TRANSFERS * 99 / 100] / 1e6, failures.get());
+
+        assertEquals(0, totalBefore.compareTo(totalBalance()));
+    }
+
+    @ParameterizedTest(name = "SEQUENCED sin esperar con {0} hilos")
+    @ValueSource(ints = {1, 8})
+    void testSequencedPipelined(int threads) throws InterruptedException {
+        TransferSequencer sequencer = sequencerFor(TransferMode.SEQUENCED);
+        BigDecimal totalBefore = totalBalance();
+        int transfers = 200_000;
+        List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<CompletableFuture<Void>> submitted = new ArrayList<>();
+                for (int i = 0; i < transfers / threads; i++) {
+                    Long target = accountIds.get(i % HOT_ACCOUNTS);
+                    Long source = accountIds.get(HOT_ACCOUNTS + random.nextInt(ACCOUNTS - HOT_ACCOUNTS));
+                    submitted.add(sequencer.submit(1L, source, target, BigDecimal.ONE));
+                }
+                futures.addAll(submitted);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        long failures = futures.stream().filter(future -> {
+            try {
+                future.join();
+                return false;
+            } catch (CompletionException e) {
+                return true;
+            }
+        }).count();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("SEQUENCED   %3d hilos sin esperar: %7.0f transferencias/s, fallidas %d%n",
+                threads, futures.size() * 1e9 / elapsed, failures);
+        assertEquals(0, totalBefore.compareTo(totalBalance()));
+    }
+
+    private AccountService serviceFor(TransferMode mode) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new AccountServiceImpl(accountRepo, bankRepo, lockManager, transferCounter, sequencerFor(mode), journal, cacheManager, entityManager,
+                        transactionManager, 500, 5000, mode));
+        factory.addAspect(retryAspect);
+        return factory.getProxy();
+    }
+
+    private TransferSequencer sequencerFor(TransferMode mode) {
+        if (mode != TransferMode.SEQUENCED) return idleSequencer;
+        if (runningSequencer == null) {
+            runningSequencer = new TransferSequencer(accountRepo, bankRepo, transferCounter, journal, snapshots, cacheManager, transactionManager,
+                    65536, 1000, 1000, TransferMode.SEQUENCED);
+            runningSequencer.start();
+        }
+        return runningSequencer;
+    }
+
+    private BigDecimal totalBalance() {
+        return accountRepo.findAll().stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
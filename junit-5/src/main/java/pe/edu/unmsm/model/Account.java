@@ -6,12 +6,17 @@ import java.math.BigDecimal;
 
 public class Account {
     private String person;
-    private BigDecimal balance;
+    private Money balance;
     private Bank bank;
 
     public Account(String person, BigDecimal balance) {
         this.person = person;
-        this.balance = balance;
+        setBalance(balance);
+    }
+
+    public Account(String person, Money balance) {
+        this.person = person;
+        this.balance = balance.copy();
     }
 
     public String getPerson() {
@@ -23,11 +28,11 @@ public class Account {
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        return balance == null ? null : balance.toBigDecimal();
     }
 
     public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+        this.balance = balance == null ? null : Money.of(balance);
     }
 
     public Bank getBank() {
@@ -39,20 +44,27 @@ public class Account {
     }
 
     public void debit(BigDecimal amount) throws InsufficientBalanceException {
-        BigDecimal newBalance = this.balance.subtract(amount);
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) throw new InsufficientBalanceException("Balance insuficiente");
-        this.balance = newBalance;
+        debit(Money.of(amount));
+    }
+
+    public void debit(Money amount) throws InsufficientBalanceException {
+        if (this.balance.compareTo(amount) < 0) throw new InsufficientBalanceException("Balance insuficiente");
+        this.balance.subtract(amount);
     }
 
     public void credit(BigDecimal amount) {
-        this.balance = this.balance.add(amount);
+        credit(Money.of(amount));
+    }
+
+    public void credit(Money amount) {
+        this.balance.add(amount);
     }
 
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof Account acc)) return false;
         if (this.person == null || this.balance == null) return false;
-        return this.person.equals(acc.getPerson()) && this.balance.equals(acc.getBalance());
+        return this.person.equals(acc.getPerson()) && this.balance.equals(acc.balance);
     }
 
     @Override
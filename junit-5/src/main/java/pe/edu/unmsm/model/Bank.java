@@ -34,6 +34,10 @@ public class Bank {
     }
 
     public void transfer(Account source, Account destination, BigDecimal amount) {
+        transfer(source, destination, Money.of(amount));
+    }
+
+    public void transfer(Account source, Account destination, Money amount) {
         source.debit(amount);
         destination.credit(amount);
     }
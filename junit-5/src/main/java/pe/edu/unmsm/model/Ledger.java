@@ -0,0 +1,116 @@
+package pe.edu.unmsm.model;
+
+import pe.edu.unmsm.exception.InsufficientBalanceException;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Saldos de muchas cuentas fuera del heap: cada cuenta es un slot de 8 bytes (unidades menores a una
+ * escala fija) en un ByteBuffer directo, sin objetos por cuenta. Las transferencias siguen las reglas
+ * de {@link Bank#transfer}: falla con {@link InsufficientBalanceException} si el origen quedaría en
+ * negativo y no cambia nada si falla. No es thread-safe.
+ */
+public class Ledger {
+    private static final int SLOT_BYTES = Long.BYTES;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / SLOT_BYTES;
+
+    private final ByteBuffer balances;
+    private final int capacity;
+    private final int scale;
+    private int size;
+
+    public Ledger(int capacity, int scale) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) throw new IllegalArgumentException("Capacidad fuera de rango: " + capacity);
+        if (scale < 0 || scale > Money.MAX_SCALE) throw new IllegalArgumentException("Escala fuera de rango: " + scale);
+        this.balances = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        this.capacity = capacity;
+        this.scale = scale;
+    }
+
+    /**
+     * Copia las cuentas del banco; el slot de cada cuenta es su posición en {@link Bank#getAccounts()}.
+     */
+    public static Ledger of(Bank bank, int scale) {
+        Ledger ledger = new Ledger(bank.getAccounts().size(), scale);
+        for (Account account : bank.getAccounts()) ledger.open(account.getBalance());
+        return ledger;
+    }
+
+    public int open(long units) {
+        if (size == capacity) throw new IllegalStateException("Ledger lleno");
+        balances.putLong(offset(size), units);
+        return size++;
+    }
+
+    public int open(BigDecimal balance) {
+        return open(toUnits(balance));
+    }
+
+    public long balance(int slot) {
+        return balances.getLong(offset(checked(slot)));
+    }
+
+    public BigDecimal getBalance(int slot) {
+        return BigDecimal.valueOf(balance(slot), scale);
+    }
+
+    public void credit(int slot, long units) {
+        int offset = offset(checked(slot));
+        balances.putLong(offset, Math.addExact(balances.getLong(offset), units));
+    }
+
+    public void debit(int slot, long units) throws InsufficientBalanceException {
+        int offset = offset(checked(slot));
+        balances.putLong(offset, debited(balances.getLong(offset), units));
+    }
+
+    public void transfer(int source, int destination, long units) throws InsufficientBalanceException {
+        int sourceOffset = offset(checked(source));
+        int destinationOffset = offset(checked(destination));
+        long sourceBalance = debited(balances.getLong(sourceOffset), units);
+        if (source == destination) return;
+        long destinationBalance = Math.addExact(balances.getLong(destinationOffset), units);
+        balances.putLong(sourceOffset, sourceBalance);
+        balances.putLong(destinationOffset, destinationBalance);
+    }
+
+    public void transfer(int source, int destination, BigDecimal amount) throws InsufficientBalanceException {
+        transfer(source, destination, toUnits(amount));
+    }
+
+    /**
+     * Importe en unidades menores de este ledger; lanza {@link ArithmeticException} si necesita redondeo o no cabe en un long.
+     */
+    public long toUnits(BigDecimal amount) {
+        return amount.setScale(scale).scaleByPowerOfTen(scale).longValueExact();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    private static long debited(long balance, long units) {
+        long newBalance = Math.subtractExact(balance, units);
+        if (newBalance < 0) throw new InsufficientBalanceException("Balance insuficiente");
+        return newBalance;
+    }
+
+    private int checked(int slot) {
+        if (slot < 0 || slot >= size) throw new IndexOutOfBoundsException("Slot fuera de rango: " + slot);
+        return slot;
+    }
+
+    private static int offset(int slot) {
+        return slot * SLOT_BYTES;
+    }
+}
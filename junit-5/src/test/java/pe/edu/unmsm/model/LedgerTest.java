@@ -0,0 +1,63 @@
+package pe.edu.unmsm.model;
+
+import org.junit.jupiter.api.Test;
+import pe.edu.unmsm.exception.InsufficientBalanceException;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerTest {
+    @Test
+    void testTransfer() {
+        Ledger ledger = new Ledger(2, 4);
+        int account1 = ledger.open(new BigDecimal("2500"));
+        int account2 = ledger.open(new BigDecimal("1500.8989"));
+
+        ledger.transfer(account2, account1, new BigDecimal(500));
+
+        assertEquals("1000.8989", ledger.getBalance(account2).toPlainString());
+        assertEquals("3000.0000", ledger.getBalance(account1).toPlainString());
+    }
+
+    @Test
+    void testInsufficientBalance() {
+        Ledger ledger = new Ledger(2, 2);
+        int source = ledger.open(new BigDecimal("1000.12"));
+        int destination = ledger.open(new BigDecimal("500"));
+
+        Exception exception = assertThrows(InsufficientBalanceException.class,
+                () -> ledger.transfer(source, destination, new BigDecimal("1500")));
+
+        assertEquals("Balance insuficiente", exception.getMessage());
+        assertEquals(100012, ledger.balance(source));
+        assertEquals(50000, ledger.balance(destination));
+    }
+
+    @Test
+    void testOverflowLeavesBalancesUntouched() {
+        Ledger ledger = new Ledger(2, 0);
+        int source = ledger.open(10);
+        int destination = ledger.open(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> ledger.transfer(source, destination, 1));
+
+        assertEquals(10, ledger.balance(source));
+        assertEquals(Long.MAX_VALUE, ledger.balance(destination));
+    }
+
+    @Test
+    void testOfBank() {
+        Bank bank = new Bank();
+        bank.addAccount(new Account("John Doe", new BigDecimal("2500")));
+        bank.addAccount(new Account("Paul", new BigDecimal("1500.8989")));
+
+        Ledger ledger = Ledger.of(bank, 4);
+
+        assertEquals(2, ledger.size());
+        assertEquals(new BigDecimal("1500.8989"), ledger.getBalance(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> ledger.balance(2));
+        assertThrows(IllegalStateException.class, () -> ledger.open(0));
+        assertThrows(ArithmeticException.class, () -> ledger.toUnits(new BigDecimal("0.00001")));
+    }
+}
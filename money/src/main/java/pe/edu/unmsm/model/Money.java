@@ -0,0 +1,101 @@
+package pe.edu.unmsm.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Importe en unidades menores: {@code units * 10^-scale}, con la misma escala que tendría el BigDecimal
+ * equivalente. Es mutable para que debit/credit no creen objetos: {@link #add} y {@link #subtract}
+ * cambian esta instancia y lanzan {@link ArithmeticException} si el resultado no cabe en un long.
+ */
+public final class Money implements Comparable<Money> {
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private long units;
+    private int scale;
+
+    private Money(long units, int scale) {
+        this.units = units;
+        this.scale = scale;
+    }
+
+    public static Money ofMinor(long units, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) throw new ArithmeticException("Escala fuera de rango: " + scale);
+        return new Money(units, scale);
+    }
+
+    public static Money of(BigDecimal value) {
+        if (value.scale() < 0) value = value.setScale(0);
+        if (value.scale() > MAX_SCALE) throw new ArithmeticException("Escala fuera de rango: " + value.scale());
+        // scaleByPowerOfTen deja escala 0 y longValueExact lee el valor compacto sin crear un BigInteger
+        return new Money(value.scaleByPowerOfTen(value.scale()).longValueExact(), value.scale());
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public Money add(Money amount) {
+        int target = Math.max(scale, amount.scale);
+        long result = Math.addExact(rescale(units, scale, target), rescale(amount.units, amount.scale, target));
+        units = result;
+        scale = target;
+        return this;
+    }
+
+    public Money subtract(Money amount) {
+        int target = Math.max(scale, amount.scale);
+        long result = Math.subtractExact(rescale(units, scale, target), rescale(amount.units, amount.scale, target));
+        units = result;
+        scale = target;
+        return this;
+    }
+
+    public Money copy() {
+        return new Money(units, scale);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        int target = Math.max(scale, other.scale);
+        return Long.compare(rescale(units, scale, target), rescale(other.units, other.scale, target));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Money money)) return false;
+        return units == money.units && scale == money.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(units) + scale;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private static long rescale(long units, int from, int to) {
+        return from == to ? units : Math.multiplyExact(units, POWERS_OF_TEN[to - from]);
+    }
+}
@@ -0,0 +1,49 @@
+package pe.edu.unmsm.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+    @Test
+    void testOfKeepsScale() {
+        Money money = Money.of(new BigDecimal("1000.12345"));
+
+        assertEquals(100012345L, money.getUnits());
+        assertEquals(5, money.getScale());
+        assertEquals(new BigDecimal("1000.12345"), money.toBigDecimal());
+        assertEquals(new BigDecimal("1E+3").setScale(0), Money.of(new BigDecimal("1E+3")).toBigDecimal());
+    }
+
+    @Test
+    void testAddAndSubtractInPlace() {
+        Money money = Money.of(new BigDecimal("2500"));
+
+        assertSame(money, money.add(Money.of(new BigDecimal("0.8989"))));
+        assertEquals("2500.8989", money.toString());
+
+        money.subtract(Money.of(new BigDecimal("500")));
+        assertEquals("2000.8989", money.toString());
+        assertEquals(new BigDecimal("2500").add(new BigDecimal("0.8989")).subtract(new BigDecimal("500")), money.toBigDecimal());
+    }
+
+    @Test
+    void testCompareTo() {
+        assertEquals(0, Money.of(new BigDecimal("100")).compareTo(Money.of(new BigDecimal("100.00"))));
+        assertTrue(Money.of(new BigDecimal("99.99")).compareTo(Money.of(new BigDecimal("100"))) < 0);
+        assertNotEquals(Money.of(new BigDecimal("100")), Money.of(new BigDecimal("100.00")));
+    }
+
+    @Test
+    void testOverflow() {
+        Money money = Money.ofMinor(Long.MAX_VALUE, 0);
+
+        assertThrows(ArithmeticException.class, () -> money.add(Money.ofMinor(1, 0)));
+        assertEquals(Long.MAX_VALUE, money.getUnits());
+        assertThrows(ArithmeticException.class, () -> money.add(Money.ofMinor(1, 2)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("100000000000000000000")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(1, 19));
+    }
+}